@@ -0,0 +1,51 @@
+package com.kiassist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kiassist.core.ChatMessage;
+import com.kiassist.core.MarkdownToHtmlConverter;
+
+/**
+ * MarkdownToHtmlConverter.getAddMessageScript (브라우저 렌더링 / Java 렌더링)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddMessageScriptBenchmark {
+
+    @Param({Payloads.SMALL, Payloads.CODE_100K, Payloads.HISTORY_1M})
+    public String size;
+
+    @Param({"false", "true"})
+    public boolean serverSideMarkdown;
+
+    private MarkdownToHtmlConverter converter;
+    private ChatMessage message;
+
+    @Setup
+    public void setUp() {
+        converter = new MarkdownToHtmlConverter();
+        converter.setServerSideMarkdown(serverSideMarkdown);
+        message = new ChatMessage(ChatMessage.Type.ASSISTANT, Payloads.answer(size), "gpt-4");
+    }
+
+    @Benchmark
+    public String getAddMessageScript() {
+        return converter.getAddMessageScript(message, 42);
+    }
+}
@@ -0,0 +1,67 @@
+package com.kiassist.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kiassist.core.ChatHistory;
+import com.kiassist.core.ChatMessage;
+
+/**
+ * ChatHistory 추가 / 최근 API 메시지 조회
+ * 1m은 링이 가득 찬 상태라 추가할 때마다 가장 오래된 메시지가 밀려남
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatHistoryBenchmark {
+
+    @Param({Payloads.SMALL, Payloads.HISTORY_1M})
+    public String size;
+
+    private ChatHistory history;
+    private ChatMessage question;
+    private ChatMessage answer;
+    private boolean nextIsQuestion;
+
+    @Setup
+    public void setUp() {
+        history = Payloads.history(size);
+        question = new ChatMessage(ChatMessage.Type.USER, Payloads.SMALL_QUESTION);
+        answer = new ChatMessage(ChatMessage.Type.ASSISTANT, Payloads.codeAnswer(20 * 1024), "gpt-4");
+        question.getEstimatedTokens();
+        answer.getEstimatedTokens();
+    }
+
+    @Benchmark
+    public ChatHistory addMessage() {
+        // 질문/답변을 번갈아 넣어 USER/ASSISTANT 비율 유지
+        history.addMessage(nextIsQuestion ? question : answer);
+        nextIsQuestion = !nextIsQuestion;
+        return history;
+    }
+
+    @Benchmark
+    public long getRecentApiMessages() {
+        List<ChatMessage> recent = history.getRecentApiMessages(20);
+        long length = 0;
+        for (int i = 0; i < recent.size(); i++) {
+            length += recent.get(i).getContent().length();
+        }
+        return length;
+    }
+}
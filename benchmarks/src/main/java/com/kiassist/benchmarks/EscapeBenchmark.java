@@ -0,0 +1,80 @@
+package com.kiassist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kiassist.core.TextEscaper;
+
+/**
+ * TextEscaper와 이전 replaceAll 연쇄 구현 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeBenchmark {
+
+    @Param({Payloads.SMALL, Payloads.CODE_100K})
+    public String payload;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = Payloads.SMALL.equals(payload) ? Payloads.SMALL_QUESTION : Payloads.codeAnswer(100 * 1024);
+    }
+
+    @Benchmark
+    public String javaScriptRegex() {
+        return legacyEscapeJavaScript(text);
+    }
+
+    @Benchmark
+    public String javaScriptTable() {
+        return TextEscaper.escapeJavaScript(text);
+    }
+
+    @Benchmark
+    public String htmlRegex() {
+        return legacyEscapeHtml(text);
+    }
+
+    @Benchmark
+    public String htmlTable() {
+        return TextEscaper.escapeHtml(text);
+    }
+
+    // MarkdownToHtmlConverter의 이전 구현 (비교 기준)
+
+    private static String legacyEscapeJavaScript(String text) {
+        if (text == null) return "";
+        return text.replaceAll("\\\\", "\\\\\\\\")
+                  .replaceAll("'", "\\\\'")
+                  .replaceAll("\"", "\\\\\"")
+                  .replaceAll("\n", "\\\\n")
+                  .replaceAll("\r", "\\\\r")
+                  .replaceAll("\t", "\\\\t");
+    }
+
+    private static String legacyEscapeHtml(String text) {
+        if (text == null) return "";
+        return text.replaceAll("&", "&amp;")
+                  .replaceAll("<", "&lt;")
+                  .replaceAll(">", "&gt;")
+                  .replaceAll("\"", "&quot;")
+                  .replaceAll("'", "&#x27;");
+    }
+}
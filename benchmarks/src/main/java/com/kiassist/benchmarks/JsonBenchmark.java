@@ -0,0 +1,76 @@
+package com.kiassist.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kiassist.core.ChatMessage;
+
+/**
+ * org.json 파싱/직렬화 (요청 messages 배열, 응답 본문)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({Payloads.SMALL, Payloads.CODE_100K, Payloads.HISTORY_1M})
+    public String size;
+
+    private JSONArray messages;
+    private String messagesJson;
+    private JSONObject response;
+    private String responseJson;
+
+    @Setup
+    public void setUp() {
+        messages = new JSONArray();
+        List<ChatMessage> history = Payloads.history(size).getApiMessages();
+        for (int i = 0; i < history.size(); i++) {
+            ChatMessage message = history.get(i);
+            JSONObject item = new JSONObject();
+            item.put("role", message.getType() == ChatMessage.Type.USER ? "user" : "assistant");
+            item.put("content", message.getContent());
+            messages.put(item);
+        }
+        messagesJson = messages.toString();
+        responseJson = Payloads.openAiResponse(Payloads.answer(size));
+        response = new JSONObject(responseJson);
+    }
+
+    @Benchmark
+    public JSONArray parseMessages() {
+        return new JSONArray(messagesJson);
+    }
+
+    @Benchmark
+    public String serializeMessages() {
+        return messages.toString();
+    }
+
+    @Benchmark
+    public JSONObject parseResponse() {
+        return new JSONObject(responseJson);
+    }
+
+    @Benchmark
+    public String serializeResponse() {
+        return response.toString();
+    }
+}
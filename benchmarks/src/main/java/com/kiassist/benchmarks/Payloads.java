@@ -0,0 +1,121 @@
+package com.kiassist.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.kiassist.core.ChatHistory;
+import com.kiassist.core.ChatMessage;
+
+/**
+ * 벤치마크용 LLM 대화 페이로드 생성 (고정 내용이라 실행마다 같은 입력)
+ * 크기 이름: small(짧은 대화), 100k(100 KB 코드 답변), 1m(1 MB 히스토리)
+ */
+public final class Payloads {
+
+    public static final String SMALL = "small";
+    public static final String CODE_100K = "100k";
+    public static final String HISTORY_1M = "1m";
+
+    public static final String SMALL_QUESTION =
+        "이 메서드에서 \"NullPointerException\"이 나는 이유가 뭘까요? list.get(0)을 호출하기 전에 isEmpty()는 확인했어요.";
+
+    private static final String CODE_BLOCK =
+        "```java\n" +
+        "public class Cache<K, V> {\n" +
+        "    private final Map<K, V> map = new LinkedHashMap<K, V>(16, 0.75f, true);\n" +
+        "\n" +
+        "    public synchronized V get(K key) {\n" +
+        "        if (key == null || map.size() < 1) {\n" +
+        "            return null; // \"빈 캐시\"\n" +
+        "        }\n" +
+        "        return map.get(key);\n" +
+        "    }\n" +
+        "\n" +
+        "    public String toHtml() {\n" +
+        "        return \"<div class='cache'>\" + map.size() + \"</div>\\n\";\n" +
+        "    }\n" +
+        "}\n" +
+        "```\n";
+
+    private static final String PROSE =
+        "위 코드는 `LinkedHashMap`의 접근 순서 모드를 이용합니다. 키가 `null`이면 바로 반환하고, " +
+        "그렇지 않으면 맵에서 꺼냅니다. 여러 스레드에서 쓰려면 `synchronized`가 필요합니다 (a < b && b > c).\n\n";
+
+    private Payloads() {
+    }
+
+    private static final String SMALL_ANSWER =
+        "`isEmpty()` 확인 뒤에도 다른 스레드가 리스트를 비울 수 있습니다. 동기화하거나 복사본을 쓰세요.";
+
+    /**
+     * 설명과 코드 블록이 번갈아 나오는 약 size 글자의 어시스턴트 답변
+     */
+    public static String codeAnswer(int size) {
+        StringBuilder text = new StringBuilder(size + CODE_BLOCK.length());
+        text.append("## 수정 방법\n\n");
+        while (text.length() < size) {
+            text.append(PROSE).append(CODE_BLOCK).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * 크기 이름에 맞는 대화 히스토리 (기본 용량 100개를 질문/답변으로 채움)
+     * small: 짧은 질문/답변 한 쌍, 100k: 마지막 답변이 100 KB, 1m: 답변 합계 약 1 MB
+     */
+    public static ChatHistory history(String size) {
+        ChatHistory history = new ChatHistory();
+        if (SMALL.equals(size)) {
+            history.addMessage(new ChatMessage(ChatMessage.Type.USER, SMALL_QUESTION));
+            history.addMessage(new ChatMessage(ChatMessage.Type.ASSISTANT, SMALL_ANSWER, "gpt-4"));
+            history.addMessage(new ChatMessage(ChatMessage.Type.USER, SMALL_QUESTION));
+        } else if (CODE_100K.equals(size)) {
+            history.addMessage(new ChatMessage(ChatMessage.Type.USER, SMALL_QUESTION));
+            history.addMessage(new ChatMessage(ChatMessage.Type.ASSISTANT, codeAnswer(100 * 1024), "gpt-4"));
+            history.addMessage(new ChatMessage(ChatMessage.Type.USER, SMALL_QUESTION));
+        } else {
+            String answer = codeAnswer(20 * 1024);
+            for (int i = 0; i < 50; i++) {
+                history.addMessage(new ChatMessage(ChatMessage.Type.USER, SMALL_QUESTION));
+                history.addMessage(new ChatMessage(ChatMessage.Type.ASSISTANT, answer, "gpt-4"));
+            }
+        }
+        return history;
+    }
+
+    /**
+     * 크기 이름에 맞는 어시스턴트 답변 본문 (1m은 답변 하나가 1 MB)
+     */
+    public static String answer(String size) {
+        if (SMALL.equals(size)) {
+            return SMALL_ANSWER;
+        }
+        return codeAnswer(CODE_100K.equals(size) ? 100 * 1024 : 1024 * 1024);
+    }
+
+    /**
+     * OpenAI chat completions 형식의 비스트리밍 응답 본문
+     */
+    public static String openAiResponse(String content) {
+        JSONObject message = new JSONObject();
+        message.put("role", "assistant");
+        message.put("content", content);
+        JSONObject choice = new JSONObject();
+        choice.put("index", 0);
+        choice.put("message", message);
+        choice.put("finish_reason", "stop");
+        JSONObject usage = new JSONObject();
+        usage.put("prompt_tokens", 812);
+        usage.put("completion_tokens", content.length() / 4);
+        usage.put("total_tokens", 812 + content.length() / 4);
+
+        JSONObject response = new JSONObject();
+        response.put("id", "chatcmpl-9f2c7a1e");
+        response.put("object", "chat.completion");
+        response.put("created", 1718000000L);
+        response.put("model", "gpt-4");
+        response.put("choices", new JSONArray().put(choice));
+        response.put("usage", usage);
+        return response.toString();
+    }
+}
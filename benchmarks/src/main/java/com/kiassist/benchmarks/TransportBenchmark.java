@@ -0,0 +1,85 @@
+package com.kiassist.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kiassist.core.LLMRequest;
+import com.kiassist.core.LLMResponse;
+import com.kiassist.core.PooledHttpTransport;
+import com.kiassist.mock.MockLLMServer;
+
+/**
+ * PooledHttpTransport 왕복 (로컬 MockLLMServer, 지연 없음)
+ * 연결 재사용과 본문 읽기 비용만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stream;
+
+    @Param({"2000", "102400"})
+    public int responseChars;
+
+    private MockLLMServer server;
+    private PooledHttpTransport transport;
+    private String url;
+    private String body;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MockLLMServer(0);
+        server.setResponseChars(responseChars);
+        server.start();
+        transport = new PooledHttpTransport();
+        url = server.getBaseUrl() + "/v1/chat/completions";
+        body = "{\"model\":\"gpt-4\",\"messages\":[{\"role\":\"user\",\"content\":\"hi\"}],\"stream\":" + stream + "}";
+    }
+
+    @TearDown
+    public void tearDown() {
+        transport.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public long roundTrip() throws IOException {
+        LLMRequest request = new LLMRequest(url, body);
+        request.setHeader("Content-Type", "application/json");
+        request.setConnectTimeout(5000);
+        request.setFirstByteTimeout(30000);
+        request.setIdleTimeout(30000);
+        LLMResponse response = transport.execute(request);
+        try {
+            InputStream in = response.getBody();
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+            return total;
+        } finally {
+            response.close();
+        }
+    }
+}
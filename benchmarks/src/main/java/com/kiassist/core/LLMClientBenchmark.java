@@ -0,0 +1,67 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kiassist.benchmarks.Payloads;
+
+/**
+ * LLMClient 요청 본문 생성 / 응답 파싱
+ * 패키지 공개 메서드를 호출하려고 com.kiassist.core 패키지에 둠
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LLMClientBenchmark {
+
+    @Param({Payloads.SMALL, Payloads.CODE_100K, Payloads.HISTORY_1M})
+    public String size;
+
+    private LLMClient client;
+    private ChatHistory history;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        // 네트워크는 쓰지 않음
+        client = new LLMClient(new LLMTransport() {
+            @Override
+            public LLMResponse execute(LLMRequest request) throws IOException {
+                throw new IOException("벤치마크에서는 전송하지 않음");
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        history = Payloads.history(size);
+        response = Payloads.openAiResponse(Payloads.answer(size));
+    }
+
+    @Benchmark
+    public String createStandardJsonRequest() {
+        // 예산 제한 없이 히스토리 전체를 직렬화
+        return client.createStandardJsonRequest(history, "gpt-4", "4096", "0.7", Integer.MAX_VALUE, true);
+    }
+
+    @Benchmark
+    public String parseJsonResponse() throws IOException {
+        return client.parseJsonResponse(new StringReader(response), "gpt-4");
+    }
+}
@@ -0,0 +1,517 @@
+package com.kiassist.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.kiassist.benchmarks.Payloads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 지연/처리량 측정용 로컬 LLM 서버 (JDK com.sun.net.httpserver)
+ *
+ * LLMClient가 쓰는 세 가지 형식으로 응답한다.
+ *   /v1/chat/completions : OpenAI chat completions (stream=true면 SSE)
+ *   /v1/messages         : Anthropic messages (stream=true면 SSE 이벤트)
+ *   그 외 경로 (/chat 등)  : 커스텀 prompt/response
+ * 첫 토큰까지의 지연, 초당 토큰 수, 답변 길이, 오류 주입은 실행 중에도 바꿀 수 있다.
+ *
+ *   MockLLMServer server = new MockLLMServer(0);
+ *   server.setTimeToFirstToken(300);
+ *   server.start();
+ *   String url = server.getBaseUrl() + "/v1/chat/completions";
+ *
+ * 단독 실행: java -cp benchmarks.jar com.kiassist.mock.MockLLMServer --port 8089 --ttft 300 --tps 40
+ */
+public class MockLLMServer {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int CHARS_PER_TOKEN = 4;
+
+    static {
+        // 헤더와 본문을 따로 쓰는 작은 응답이 Nagle + 지연 ACK로 40ms씩 밀리지 않도록
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // 응답 설정 (요청마다 읽으므로 실행 중 변경 가능)
+    private volatile long timeToFirstToken;   // ms
+    private volatile double tokensPerSecond;  // 0 이하면 제한 없음
+    private volatile String answer = answerOf(2000); // 답변 본문 (길이만 설정)
+    private volatile double errorRate;        // 0~1, 본문 없이 errorStatus로 응답할 확률
+    private volatile int errorStatus = 503;
+    private volatile int retryAfterSeconds;   // 0보다 크면 429/503 오류에 Retry-After 헤더 추가
+    private volatile double disconnectRate;   // 0~1, 답변 중간에 연결을 끊을 확률
+
+    // 통계
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong disconnectCount = new AtomicLong();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    /**
+     * @param port 0이면 비어 있는 포트 자동 선택
+     */
+    public MockLLMServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MockLLMServer-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        server.setExecutor(executor);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                activeRequests.incrementAndGet();
+                try {
+                    handleRequest(exchange);
+                } finally {
+                    activeRequests.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * http://127.0.0.1:포트 (경로 없음)
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + getPort();
+    }
+
+    // 설정
+
+    public void setTimeToFirstToken(long millis) {
+        this.timeToFirstToken = millis;
+    }
+
+    public void setTokensPerSecond(double tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+    }
+
+    /**
+     * 답변 본문 길이 (글자 수)
+     */
+    public void setResponseChars(int responseChars) {
+        this.answer = answerOf(responseChars);
+    }
+
+    private static String answerOf(int chars) {
+        return Payloads.codeAnswer(chars).substring(0, chars);
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public void setDisconnectRate(double disconnectRate) {
+        this.disconnectRate = disconnectRate;
+    }
+
+    // 통계
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getDisconnectCount() {
+        return disconnectCount.get();
+    }
+
+    public int getActiveRequests() {
+        return activeRequests.get();
+    }
+
+    public void resetCounters() {
+        requestCount.set(0);
+        errorCount.set(0);
+        disconnectCount.set(0);
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        JSONObject request;
+        try {
+            request = new JSONObject(new String(readAll(exchange.getRequestBody()), UTF_8));
+        } catch (JSONException e) {
+            sendJson(exchange, 400, error("invalid_request_error", "요청 본문이 JSON이 아닙니다: " + e.getMessage()));
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            errorCount.incrementAndGet();
+            int status = errorStatus;
+            if (retryAfterSeconds > 0 && (status == 429 || status == 503)) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+            }
+            sendJson(exchange, status, error(status == 429 ? "rate_limit_error" : "server_error", "mock error " + status));
+            return;
+        }
+
+        Shape shape = Shape.of(exchange.getRequestURI().getPath(), request);
+        boolean stream = request.optBoolean("stream", false) && shape != Shape.CUSTOM;
+        String model = request.optString("model", "mock-model");
+        boolean disconnect = disconnectRate > 0 && random.nextDouble() < disconnectRate;
+        String answer = this.answer;
+        List<String> tokens = tokenize(answer);
+
+        sleep(timeToFirstToken);
+        if (stream) {
+            streamResponse(exchange, shape, model, tokens, disconnect);
+        } else {
+            // 비스트리밍 응답은 생성이 끝난 뒤 한 번에 전송 (토큰 속도만큼 기다림)
+            Pacer pacer = new Pacer(tokensPerSecond);
+            StringBuilder content = new StringBuilder(answer.length());
+            for (String token : tokens) {
+                pacer.next();
+                content.append(token);
+            }
+            byte[] body = shape.completion(model, content.toString()).toString().getBytes(UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            if (disconnect) {
+                out.write(body, 0, body.length / 2);
+                out.flush();
+                dropConnection();
+            }
+            out.write(body);
+            out.close();
+        }
+    }
+
+    private void streamResponse(HttpExchange exchange, Shape shape, String model,
+                                List<String> tokens, boolean disconnect) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0); // chunked
+
+        OutputStream out = exchange.getResponseBody();
+        for (String event : shape.streamStart(model)) {
+            out.write(event.getBytes(UTF_8));
+        }
+
+        Pacer pacer = new Pacer(tokensPerSecond);
+        int dropAt = disconnect ? tokens.size() / 2 : -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i == dropAt) {
+                out.flush();
+                dropConnection();
+            }
+            if (i > 0) {
+                pacer.next();
+            }
+            out.write(shape.streamDelta(tokens.get(i)).getBytes(UTF_8));
+            out.flush();
+        }
+
+        for (String event : shape.streamEnd()) {
+            out.write(event.getBytes(UTF_8));
+        }
+        out.close();
+    }
+
+    /**
+     * 응답을 끝맺지 않고 연결을 닫음
+     * 핸들러에서 예외가 나가면 HttpServer는 종료 청크 없이 연결을 닫는다.
+     */
+    private void dropConnection() throws IOException {
+        disconnectCount.incrementAndGet();
+        throw new IOException("mock disconnect");
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JSONObject json) throws IOException {
+        byte[] body = json.toString().getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private static JSONObject error(String type, String message) {
+        JSONObject error = new JSONObject();
+        error.put("type", type);
+        error.put("message", message);
+        return new JSONObject().put("error", error);
+    }
+
+    /**
+     * 약 4글자 단위로 자른 토큰 (서로게이트 쌍은 나누지 않음)
+     */
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<String>(text.length() / CHARS_PER_TOKEN + 1);
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(text.length(), start + CHARS_PER_TOKEN);
+            if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+                end++;
+            }
+            tokens.add(text.substring(start, end));
+            start = end;
+        }
+        return tokens;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        in.close();
+        return buffer.toByteArray();
+    }
+
+    private static void sleep(long millis) throws IOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("중단됨");
+        }
+    }
+
+    /**
+     * 초당 토큰 수에 맞춰 대기 (누적 시각 기준이라 sleep 오차가 쌓이지 않음)
+     */
+    private static class Pacer {
+        private final long nanosPerToken;
+        private long deadline = System.nanoTime();
+
+        Pacer(double tokensPerSecond) {
+            nanosPerToken = tokensPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond) : 0;
+        }
+
+        void next() throws IOException {
+            if (nanosPerToken == 0) {
+                return;
+            }
+            deadline += nanosPerToken;
+            long wait = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            sleep(wait);
+        }
+    }
+
+    /**
+     * 응답 형식별 본문/SSE 이벤트
+     */
+    private enum Shape {
+        OPENAI {
+            @Override
+            JSONObject completion(String model, String content) {
+                JSONObject message = new JSONObject().put("role", "assistant").put("content", content);
+                JSONObject choice = new JSONObject().put("index", 0).put("message", message).put("finish_reason", "stop");
+                return new JSONObject()
+                    .put("id", "chatcmpl-mock")
+                    .put("object", "chat.completion")
+                    .put("model", model)
+                    .put("choices", new JSONArray().put(choice));
+            }
+
+            @Override
+            String[] streamStart(String model) {
+                return new String[0];
+            }
+
+            @Override
+            String streamDelta(String token) {
+                JSONObject delta = new JSONObject().put("content", token);
+                JSONObject choice = new JSONObject().put("index", 0).put("delta", delta);
+                return data(new JSONObject().put("choices", new JSONArray().put(choice)));
+            }
+
+            @Override
+            String[] streamEnd() {
+                return new String[] { "data: [DONE]\n\n" };
+            }
+        },
+        ANTHROPIC {
+            @Override
+            JSONObject completion(String model, String content) {
+                JSONObject text = new JSONObject().put("type", "text").put("text", content);
+                return new JSONObject()
+                    .put("id", "msg_mock")
+                    .put("type", "message")
+                    .put("role", "assistant")
+                    .put("model", model)
+                    .put("content", new JSONArray().put(text))
+                    .put("stop_reason", "end_turn");
+            }
+
+            @Override
+            String[] streamStart(String model) {
+                JSONObject message = new JSONObject().put("id", "msg_mock").put("type", "message")
+                    .put("role", "assistant").put("model", model).put("content", new JSONArray());
+                JSONObject block = new JSONObject().put("type", "text").put("text", "");
+                return new String[] {
+                    event("message_start", new JSONObject().put("type", "message_start").put("message", message)),
+                    event("content_block_start", new JSONObject().put("type", "content_block_start")
+                        .put("index", 0).put("content_block", block))
+                };
+            }
+
+            @Override
+            String streamDelta(String token) {
+                JSONObject delta = new JSONObject().put("type", "text_delta").put("text", token);
+                return event("content_block_delta", new JSONObject().put("type", "content_block_delta")
+                    .put("index", 0).put("delta", delta));
+            }
+
+            @Override
+            String[] streamEnd() {
+                return new String[] {
+                    event("content_block_stop", new JSONObject().put("type", "content_block_stop").put("index", 0)),
+                    event("message_stop", new JSONObject().put("type", "message_stop"))
+                };
+            }
+        },
+        CUSTOM {
+            @Override
+            JSONObject completion(String model, String content) {
+                return new JSONObject().put("response", content);
+            }
+
+            @Override
+            String[] streamStart(String model) {
+                return new String[0];
+            }
+
+            @Override
+            String streamDelta(String token) {
+                // 실제 커스텀 서버는 스트리밍하지 않아 쓰이지 않지만, 응답과 같은 형식의 조각으로 둠
+                return data(new JSONObject().put("response", token));
+            }
+
+            @Override
+            String[] streamEnd() {
+                return new String[0];
+            }
+        };
+
+        abstract JSONObject completion(String model, String content);
+
+        abstract String[] streamStart(String model);
+
+        abstract String streamDelta(String token);
+
+        abstract String[] streamEnd();
+
+        static Shape of(String path, JSONObject request) {
+            if (path.endsWith("/chat/completions")) {
+                return OPENAI;
+            }
+            if (path.endsWith("/messages")) {
+                return ANTHROPIC;
+            }
+            return request.has("prompt") || !request.has("messages") ? CUSTOM : OPENAI;
+        }
+
+        private static String data(JSONObject json) {
+            return "data: " + json + "\n\n";
+        }
+
+        private static String event(String name, JSONObject json) {
+            return "event: " + name + "\n" + data(json);
+        }
+    }
+
+    /**
+     * 단독 실행
+     * --port N --ttft ms --tps N --chars N --error-rate 0~1 --error-status N --retry-after s --disconnect-rate 0~1
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8089;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            }
+        }
+        MockLLMServer server = new MockLLMServer(port);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String name = args[i];
+            String value = args[i + 1];
+            if ("--ttft".equals(name)) {
+                server.setTimeToFirstToken(Long.parseLong(value));
+            } else if ("--tps".equals(name)) {
+                server.setTokensPerSecond(Double.parseDouble(value));
+            } else if ("--chars".equals(name)) {
+                server.setResponseChars(Integer.parseInt(value));
+            } else if ("--error-rate".equals(name)) {
+                server.setErrorRate(Double.parseDouble(value));
+            } else if ("--error-status".equals(name)) {
+                server.setErrorStatus(Integer.parseInt(value));
+            } else if ("--retry-after".equals(name)) {
+                server.setRetryAfterSeconds(Integer.parseInt(value));
+            } else if ("--disconnect-rate".equals(name)) {
+                server.setDisconnectRate(Double.parseDouble(value));
+            } else if (!"--port".equals(name)) {
+                System.err.println("알 수 없는 옵션: " + name);
+            }
+        }
+        server.start();
+        System.out.println("MockLLMServer 시작: " + server.getBaseUrl());
+        System.out.println("  OpenAI:    " + server.getBaseUrl() + "/v1/chat/completions");
+        System.out.println("  Anthropic: " + server.getBaseUrl() + "/v1/messages");
+        System.out.println("  커스텀:    " + server.getBaseUrl() + "/chat");
+    }
+}
@@ -1,11 +1,28 @@
 package com.kiassist;
 
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.prefs.BackingStoreException;
 
+import com.kiassist.core.ChatSessionStore;
+import com.kiassist.core.MarkdownToHtmlConverter;
+import com.kiassist.core.PluginLog;
+import com.kiassist.core.PooledHttpTransport;
+import com.kiassist.core.RequestExecutor;
+import com.kiassist.core.ResponseCache;
+import com.kiassist.preferences.PreferenceConstants;
+
 /**
  * KI Assist Plugin Activator
  * JDK 7+ 호환
@@ -18,6 +35,27 @@ public class Activator extends AbstractUIPlugin {
     // Shared instance
     private static Activator plugin;
 
+    // 진행 중인 요청이 끝나기를 기다리는 최대 시간 (플러그인 종료 시)
+    private static final long REQUEST_DRAIN_TIMEOUT_MS = 5000;
+    // 종료 시 남은 로그를 기록하는 최대 시간
+    private static final long LOG_DRAIN_TIMEOUT_MS = 1000;
+
+    // LLM 요청 작업 스레드 풀
+    private RequestExecutor requestExecutor;
+    // 헤징 요청의 주/보조 쪽을 실행하는 스레드 풀 (요청 스레드마다 최대 두 쪽)
+    private static final int HEDGE_THREADS = 8;
+    private static final int HEDGE_QUEUE_CAPACITY = 16;
+    private RequestExecutor hedgeExecutor;
+
+    // 채팅 세션 저장소 (상태 디렉터리/sessions)
+    private ChatSessionStore sessionStore;
+
+    // 응답 캐시 (상태 디렉터리/response-cache.json, 처음 요청할 때 읽음)
+    private ResponseCache responseCache;
+
+    // 로그 설정 변경 감지
+    private IPropertyChangeListener logPreferenceListener;
+
     /**
      * Constructor
      */
@@ -31,12 +69,61 @@ public class Activator extends AbstractUIPlugin {
     public void start(BundleContext context) throws Exception {
         super.start(context);
         plugin = this;
-        System.out.println("KI Assist Plugin started successfully!");
+        installLog();
+        requestExecutor = new RequestExecutor();
+        hedgeExecutor = new RequestExecutor("KI Assist Hedge", HEDGE_THREADS, HEDGE_QUEUE_CAPACITY);
+        sessionStore = new ChatSessionStore(new File(getStateLocation().toFile(), "sessions"));
+        PluginLog.info("KI Assist Plugin started");
         
         // 무조건 기본 설정값 초기화 (PreferenceInitializer보다 확실함)
         initializeDefaultSettings();
     }
 
+    /**
+     * PluginLog를 Eclipse ILog로 연결하고 로그 설정 적용
+     */
+    private void installLog() {
+        final ILog log = getLog();
+        PluginLog.setSink(new PluginLog.LogSink() {
+            @Override
+            public void log(PluginLog.Level level, String message, Throwable error) {
+                log.log(new Status(toSeverity(level), PLUGIN_ID, message, error));
+            }
+        });
+
+        final IPreferenceStore store = getPreferenceStore();
+        applyLogPreferences(store);
+        logPreferenceListener = new IPropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent event) {
+                String property = event.getProperty();
+                if (PreferenceConstants.LOG_LEVEL.equals(property) || PreferenceConstants.LOG_PAYLOADS.equals(property)) {
+                    applyLogPreferences(store);
+                }
+            }
+        };
+        store.addPropertyChangeListener(logPreferenceListener);
+    }
+
+    private static void applyLogPreferences(IPreferenceStore store) {
+        PluginLog.Level level;
+        try {
+            level = PluginLog.Level.valueOf(store.getString(PreferenceConstants.LOG_LEVEL));
+        } catch (IllegalArgumentException e) {
+            level = PluginLog.Level.INFO;
+        }
+        PluginLog.setLevel(level);
+        PluginLog.setPayloadEnabled(store.getBoolean(PreferenceConstants.LOG_PAYLOADS));
+    }
+
+    private static int toSeverity(PluginLog.Level level) {
+        switch (level) {
+            case ERROR: return IStatus.ERROR;
+            case WARN: return IStatus.WARNING;
+            default: return IStatus.INFO;
+        }
+    }
+
     /**
      * 기본 설정값 강제 초기화
      */
@@ -47,7 +134,7 @@ public class Activator extends AbstractUIPlugin {
             // 설정이 처음인지 확인 (버전 체크)
             String version = prefs.get("kiassist.settings.version", "");
             if (version.isEmpty()) {
-                System.out.println("첫 실행 감지 - 기본 설정값을 초기화합니다.");
+                PluginLog.info("첫 실행 감지 - 기본 설정값을 초기화합니다.");
                 
                 // 기본 API 설정 (상수 사용)
                 prefs.put("kiassist.api.url", "https://api.openai.com/v1/chat/completions");
@@ -64,21 +151,17 @@ public class Activator extends AbstractUIPlugin {
                 prefs.put("kiassist.settings.version", "1.0.0");
                 
                 prefs.flush(); // 즉시 디스크에 저장
-                System.out.println("기본 설정값 초기화 완료!");
-                
-            } else {
-                System.out.println("기존 설정 발견 - 버전: " + version);
+                PluginLog.info("기본 설정값 초기화 완료");
                 
+            } else if (PluginLog.isDebugEnabled()) {
                 // 기존 설정값 출력 (디버깅용)
-                String apiUrl = prefs.get("kiassist.api.url", "없음");
-                String maxTokens = prefs.get("kiassist.max.tokens", "없음");
-                System.out.println("API URL: " + apiUrl);
-                System.out.println("Max Tokens: " + maxTokens);
+                PluginLog.debug("기존 설정 발견 - 버전: " + version +
+                    ", API URL: " + prefs.get("kiassist.api.url", "없음") +
+                    ", Max Tokens: " + prefs.get("kiassist.max.tokens", "없음"));
             }
             
         } catch (BackingStoreException e) {
-            System.err.println("설정 초기화 오류: " + e.getMessage());
-            e.printStackTrace();
+            PluginLog.error("설정 초기화 오류", e);
         }
     }
 
@@ -87,9 +170,31 @@ public class Activator extends AbstractUIPlugin {
      * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
      */
     public void stop(BundleContext context) throws Exception {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown(REQUEST_DRAIN_TIMEOUT_MS);
+            requestExecutor = null;
+        }
+        if (hedgeExecutor != null) {
+            // 요청 스레드가 끝났으므로 남은 쪽은 기다리지 않고 중단
+            hedgeExecutor.shutdown(0);
+            hedgeExecutor = null;
+        }
+        if (sessionStore != null) {
+            sessionStore.close();
+            sessionStore = null;
+        }
+        saveResponseCache();
+        PooledHttpTransport.closeInstance();
+        MarkdownToHtmlConverter.clearCaches();
+        if (logPreferenceListener != null) {
+            getPreferenceStore().removePropertyChangeListener(logPreferenceListener);
+            logPreferenceListener = null;
+        }
+        PluginLog.info("KI Assist Plugin stopped");
+        // 남은 로그를 ILog로 보낸 뒤 콘솔 싱크로 되돌림 (번들이 멈추기 전에)
+        PluginLog.shutdown(LOG_DRAIN_TIMEOUT_MS);
         plugin = null;
         super.stop(context);
-        System.out.println("KI Assist Plugin stopped.");
     }
 
     /**
@@ -100,4 +205,48 @@ public class Activator extends AbstractUIPlugin {
     public static Activator getDefault() {
         return plugin;
     }
+
+    /**
+     * LLM 요청용 공유 작업 스레드 풀
+     */
+    public RequestExecutor getRequestExecutor() {
+        return requestExecutor;
+    }
+
+    /**
+     * 헤징 요청용 스레드 풀
+     */
+    public RequestExecutor getHedgeExecutor() {
+        return hedgeExecutor;
+    }
+
+    /**
+     * 채팅 세션 저장소
+     */
+    public ChatSessionStore getSessionStore() {
+        return sessionStore;
+    }
+
+    /**
+     * 응답 캐시 (처음 호출할 때 파일에서 읽으므로 작업 스레드에서 호출)
+     */
+    public synchronized ResponseCache getResponseCache() {
+        if (responseCache == null) {
+            responseCache = new ResponseCache(new File(getStateLocation().toFile(), "response-cache.json"));
+            responseCache.load();
+        }
+        return responseCache;
+    }
+
+    private synchronized void saveResponseCache() {
+        if (responseCache == null) {
+            return;
+        }
+        try {
+            responseCache.save();
+        } catch (IOException e) {
+            PluginLog.warn("응답 캐시 저장 오류", e);
+        }
+        responseCache = null;
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.IWorkbenchWindowActionDelegate;
 import org.eclipse.ui.PartInitException;
 
+import com.kiassist.core.PluginLog;
 import com.kiassist.views.KIAssistView;
 
 /**
@@ -20,7 +21,7 @@ public class OpenKIAssistAction implements IWorkbenchWindowActionDelegate {
         try {
             window.getActivePage().showView(KIAssistView.ID);
         } catch (PartInitException e) {
-            e.printStackTrace();
+            PluginLog.error("KI Assist 뷰를 열 수 없습니다.", e);
         }
     }
 
@@ -1,113 +1,330 @@
-
 /**
  * 채팅 히스토리 관리 클래스
  * JDK 7 호환
  */
 package com.kiassist.core;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.AbstractList;
 import java.util.List;
 
 public class ChatHistory {
-    
-    private List<ChatMessage> messages;
+
     private static final int MAX_MESSAGES = 100; // 메모리 관리
-    
+
+    // 고정 크기 링 버퍼: 추가/제거 모두 O(1), 배열 이동 없음
+    private final MessageRing messages;     // 타이핑 인디케이터를 제외한 전체 메시지
+    private final MessageRing apiMessages;  // USER/ASSISTANT 메시지만 (같은 순서)
+    private ChatMessage typingIndicator;    // 타이핑 인디케이터는 별도 슬롯에 보관
+    private long apiTokenTotal; // API 메시지 토큰 근사치 누적 합계
+    private ChatJournal journal; // 연결된 경우 추가되는 메시지를 디스크에 기록
+    private long nextSequence; // 다음에 추가될 메시지의 일련번호 (저널이 있으면 저널 인덱스와 같음)
+
     public ChatHistory() {
-        messages = new ArrayList<ChatMessage>();
+        this(MAX_MESSAGES);
+    }
+
+    /**
+     * @param capacity 보관할 최대 메시지 수 (넘으면 가장 오래된 메시지부터 제거)
+     */
+    public ChatHistory(int capacity) {
+        messages = new MessageRing(capacity);
+        apiMessages = new MessageRing(capacity);
     }
-    
+
     /**
      * 메시지 추가
      */
     public void addMessage(ChatMessage message) {
+        if (message.getType() == ChatMessage.Type.TYPING) {
+            typingIndicator = message;
+            return;
+        }
+
         // 타이핑 인디케이터가 있다면 제거
-        removeTypingIndicator();
-        
-        messages.add(message);
-        
-        // 최대 메시지 수 제한
-        if (messages.size() > MAX_MESSAGES) {
-            messages.remove(0);
+        typingIndicator = null;
+        nextSequence++;
+
+        // 최대 메시지 수 제한 (가득 차면 가장 오래된 메시지를 덮어씀)
+        ChatMessage evicted = messages.add(message, 0);
+        if (evicted != null && isApiMessage(evicted)) {
+            // API 링은 같은 순서를 유지하므로 가장 오래된 항목이 바로 제거된 메시지
+            apiTokenTotal -= apiMessages.removeFirst();
+        }
+
+        if (isApiMessage(message)) {
+            int tokens = message.getEstimatedTokens();
+            apiMessages.add(message, tokens);
+            apiTokenTotal += tokens;
+        }
+
+        if (journal != null) {
+            // 디스크 쓰기는 저널의 쓰기 스레드에서 (UI 스레드를 막지 않음)
+            journal.appendLater(message);
         }
     }
-    
+
     /**
-     * 타이핑 인디케이터 제거
+     * 저널에서 최근 메시지(보관 한도만큼)를 복원하고, 이후 추가되는 메시지는 저널에 기록
+     * 손상된 레코드는 일련번호가 어긋나지 않도록 안내 메시지로 대신한다.
      */
-    private void removeTypingIndicator() {
-        for (int i = messages.size() - 1; i >= 0; i--) {
-            if (messages.get(i).getType() == ChatMessage.Type.TYPING) {
-                messages.remove(i);
-                break;
+    public void restoreFrom(ChatJournal journal) throws IOException {
+        clearMemory();
+        this.journal = null;
+
+        // 같은 세션을 쓰던 뷰가 맡긴 기록이 남아 있으면 끝난 뒤 읽음
+        journal.flush();
+        int total = journal.size();
+        int from = Math.max(0, total - messages.capacity());
+        nextSequence = from;
+        int corrupted = 0;
+        for (int i = from; i < total; i++) {
+            ChatMessage message;
+            try {
+                message = journal.read(i);
+            } catch (IOException e) {
+                if (corrupted++ == 0) {
+                    PluginLog.warn("손상된 채팅 기록을 건너뜁니다", e);
+                }
+                message = new ChatMessage(ChatMessage.Type.SYSTEM, "(손상되어 읽을 수 없는 메시지)");
             }
+            addMessage(message);
         }
+
+        this.journal = journal;
     }
-    
+
     /**
-     * 모든 메시지 가져오기
+     * 모든 메시지 가져오기 (타이핑 인디케이터가 있으면 마지막에 포함)
+     * 복사 없는 읽기 전용 뷰이며 히스토리가 바뀌면 함께 바뀐다.
+     * 다른 스레드에서 사용하려면 snapshot()을 사용할 것.
      */
     public List<ChatMessage> getMessages() {
-        return new ArrayList<ChatMessage>(messages); // 복사본 반환
+        return new AbstractList<ChatMessage>() {
+            @Override
+            public ChatMessage get(int index) {
+                if (index == messages.size() && typingIndicator != null) {
+                    return typingIndicator;
+                }
+                return messages.get(index);
+            }
+
+            @Override
+            public int size() {
+                return ChatHistory.this.size();
+            }
+        };
     }
-    
+
     /**
      * 대화 히스토리 초기화
      */
     public void clear() {
+        clearMemory();
+
+        if (journal != null) {
+            journal.clearLater();
+        }
+    }
+
+    private void clearMemory() {
         messages.clear();
+        apiMessages.clear();
+        typingIndicator = null;
+        apiTokenTotal = 0;
+        nextSequence = 0;
     }
-    
+
     /**
      * API 호출용 메시지 리스트 (시스템/타이핑 메시지 제외)
+     * 복사 없는 읽기 전용 뷰
      */
     public List<ChatMessage> getApiMessages() {
-        List<ChatMessage> apiMessages = new ArrayList<ChatMessage>();
-        
-        for (ChatMessage msg : messages) {
-            if (msg.getType() == ChatMessage.Type.USER || 
-                msg.getType() == ChatMessage.Type.ASSISTANT) {
-                apiMessages.add(msg);
-            }
-        }
-        
-        return apiMessages;
+        return apiMessages.view(0);
+    }
+
+    /**
+     * API 메시지 전체의 토큰 근사치 합계 (누적 관리, O(1))
+     */
+    public long getApiTokenTotal() {
+        return apiTokenTotal;
+    }
+
+    private boolean isApiMessage(ChatMessage msg) {
+        return msg.getType() == ChatMessage.Type.USER ||
+               msg.getType() == ChatMessage.Type.ASSISTANT;
     }
-    
+
     /**
      * 마지막 N개 메시지만 가져오기 (컨텍스트 길이 제한)
      */
     public List<ChatMessage> getRecentApiMessages(int maxMessages) {
-        List<ChatMessage> apiMessages = getApiMessages();
-        
-        if (apiMessages.size() <= maxMessages) {
-            return apiMessages;
+        return apiMessages.view(Math.max(0, apiMessages.size() - maxMessages));
+    }
+
+    /**
+     * 현재 상태의 독립된 복사본 (백그라운드 요청에 넘길 때 사용)
+     */
+    public ChatHistory snapshot() {
+        ChatHistory copy = new ChatHistory(messages.capacity());
+        for (int i = 0; i < messages.size(); i++) {
+            copy.addMessage(messages.get(i));
         }
-        
-        return apiMessages.subList(apiMessages.size() - maxMessages, apiMessages.size());
+        copy.typingIndicator = typingIndicator;
+        copy.nextSequence = nextSequence;
+        return copy;
     }
-    
+
+    /**
+     * 다음에 추가될 메시지의 일련번호 (타이핑 인디케이터에는 번호가 붙지 않음)
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * 메모리에 남아 있는 index번째 메시지의 일련번호
+     */
+    public long getSequenceOf(int index) {
+        return nextSequence - messages.size() + index;
+    }
+
+    /**
+     * 다시 불러올 수 있는 가장 오래된 메시지의 일련번호 (저널이 있으면 0)
+     */
+    public long getFirstAvailableSequence() {
+        return journal != null ? 0 : nextSequence - messages.size();
+    }
+
+    /**
+     * 일련번호로 메시지 찾기
+     * 메모리에서 밀려난 메시지는 연결된 저널에서 읽는다.
+     * @return 메모리에도 저널에도 없으면 null
+     */
+    public ChatMessage getMessageBySequence(long sequence) {
+        long first = nextSequence - messages.size();
+        if (sequence >= first && sequence < nextSequence) {
+            return messages.get((int) (sequence - first));
+        }
+        if (journal != null && sequence >= 0 && sequence < first) {
+            try {
+                if (sequence < journal.size()) {
+                    return journal.read((int) sequence);
+                }
+            } catch (IOException e) {
+                PluginLog.warn("채팅 저널 읽기 오류", e);
+            }
+        }
+        return null;
+    }
+
     /**
      * 메시지 개수
      */
     public int size() {
-        return messages.size();
+        return messages.size() + (typingIndicator != null ? 1 : 0);
     }
-    
+
     /**
      * 비어있는지 확인
      */
     public boolean isEmpty() {
-        return messages.isEmpty();
+        return size() == 0;
     }
-    
+
     /**
      * 마지막 메시지 가져오기
      */
     public ChatMessage getLastMessage() {
-        if (messages.isEmpty()) {
+        if (typingIndicator != null) {
+            return typingIndicator;
+        }
+        if (messages.size() == 0) {
             return null;
         }
         return messages.get(messages.size() - 1);
     }
+
+    /**
+     * 고정 크기 원형 버퍼 (항목별 가중치 함께 보관)
+     */
+    private static class MessageRing {
+        private final ChatMessage[] items;
+        private final int[] weights;
+        private int head; // 가장 오래된 항목 위치
+        private int size;
+
+        MessageRing(int capacity) {
+            items = new ChatMessage[capacity];
+            weights = new int[capacity];
+        }
+
+        int capacity() {
+            return items.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * 끝에 추가, 가득 차 있었다면 밀려난 가장 오래된 항목 반환
+         */
+        ChatMessage add(ChatMessage message, int weight) {
+            ChatMessage evicted = null;
+            int tail = (head + size) % items.length;
+            if (size == items.length) {
+                evicted = items[head];
+                head = (head + 1) % items.length;
+            } else {
+                size++;
+            }
+            items[tail] = message;
+            weights[tail] = weight;
+            return evicted;
+        }
+
+        /**
+         * 가장 오래된 항목 제거, 그 가중치 반환
+         */
+        int removeFirst() {
+            int weight = weights[head];
+            items[head] = null;
+            head = (head + 1) % items.length;
+            size--;
+            return weight;
+        }
+
+        ChatMessage get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return items[(head + index) % items.length];
+        }
+
+        void clear() {
+            for (int i = 0; i < items.length; i++) {
+                items[i] = null;
+            }
+            head = 0;
+            size = 0;
+        }
+
+        /**
+         * from번째 항목부터 끝까지의 읽기 전용 뷰
+         */
+        List<ChatMessage> view(final int from) {
+            return new AbstractList<ChatMessage>() {
+                @Override
+                public ChatMessage get(int index) {
+                    return MessageRing.this.get(from + index);
+                }
+
+                @Override
+                public int size() {
+                    return Math.max(0, size - from);
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,517 @@
+package com.kiassist.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 채팅 세션 하나를 디스크에 기록하는 추가 전용(append-only) 저널
+ *
+ * 메시지는 도착하는 대로 세그먼트 파일 끝에 이진 레코드로 덧붙인다.
+ * 세그먼트는 SEGMENT_CAPACITY개 레코드가 차면 봉인되고 다음 번호로 넘어간다.
+ * 다시 열 때는 마지막(활성) 세그먼트의 레코드 헤더만 훑어 개수를 세고,
+ * 봉인된 이전 세그먼트는 실제로 읽을 때 처음으로 메모리 매핑한다.
+ * 따라서 메시지가 아무리 많아도 최근 메시지 복원 비용은 일정하다.
+ *
+ * 레코드 형식: [int 길이][byte 타입][long 시각][short 모델명 길이(-1: 없음)][모델명][내용]
+ * 길이 = 길이 필드를 제외한 레코드 바이트 수
+ * 손상된 레코드를 읽으면 IOException을 던진다.
+ *
+ * UI 스레드에서는 appendLater/clearLater로 저널 전용 쓰기 스레드에 맡긴다. 쓰기는 요청한
+ * 순서대로 처리되고, 할 일이 없으면 스레드는 끝났다가 다음 요청에서 다시 시작한다.
+ * JDK 7 호환
+ */
+public class ChatJournal {
+
+    static final int SEGMENT_CAPACITY = 1024;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String HEAD_FILE = "head";
+    private static final int LENGTH_BYTES = 4;
+    private static final int FIXED_BYTES = 1 + 8 + 2; // 타입 + 시각 + 모델명 길이
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final long WRITER_KEEP_ALIVE_SECONDS = 5;
+    private static final long FLUSH_TIMEOUT_SECONDS = 5;
+
+    private final File directory;
+    private final List<Segment> segments; // 봉인된 세그먼트들 + 마지막 활성 세그먼트
+    private final ExecutorService writer; // appendLater/clearLater용 단일 쓰기 스레드
+    private FileChannel writeChannel;     // 활성 세그먼트 쓰기용
+    private int count;
+
+    private ChatJournal(File directory) {
+        this.directory = directory;
+        this.segments = new ArrayList<Segment>();
+        this.writer = new ThreadPoolExecutor(0, 1, WRITER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "KI Assist Journal");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    }
+
+    /**
+     * 세션 디렉터리의 저널 열기 (없으면 생성)
+     */
+    public static ChatJournal open(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("세션 디렉터리를 만들 수 없습니다: " + directory);
+        }
+        ChatJournal journal = new ChatJournal(directory);
+        journal.load();
+        return journal;
+    }
+
+    /**
+     * 저장된 메시지 수
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * 메시지 기록 (타이핑 인디케이터는 저장하지 않음)
+     */
+    public synchronized void append(ChatMessage message) throws IOException {
+        if (message.getType() == ChatMessage.Type.TYPING) {
+            return;
+        }
+
+        Segment active = segments.get(segments.size() - 1);
+        if (active.recordCount == SEGMENT_CAPACITY) {
+            // 가득 찬 세그먼트는 봉인하고 다음 세그먼트로
+            closeWriteChannel();
+            active.sealed = true;
+            active = createSegment(active.number + 1);
+        }
+
+        ByteBuffer record = encode(message);
+        FileChannel channel = getWriteChannel(active);
+        long offset = active.length;
+        while (record.hasRemaining()) {
+            channel.write(record, active.length + record.position());
+        }
+
+        active.offsets[active.recordCount++] = (int) offset;
+        active.length += record.limit();
+        count++;
+    }
+
+    /**
+     * 쓰기 스레드에서 메시지 기록 (실패는 로그로만 남김)
+     */
+    public void appendLater(final ChatMessage message) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    append(message);
+                } catch (IOException e) {
+                    PluginLog.warn("채팅 저널 기록 오류", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 쓰기 스레드에서 세션 비우기 (앞서 요청한 기록이 끝난 뒤 처리)
+     */
+    public void clearLater() {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    clear();
+                } catch (IOException e) {
+                    PluginLog.warn("채팅 저널 초기화 오류", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 쓰기 스레드에 맡긴 작업이 모두 끝날 때까지 대기 (최대 FLUSH_TIMEOUT_SECONDS초)
+     */
+    public void flush() throws IOException {
+        Future<?> done;
+        try {
+            done = writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // 앞선 작업이 모두 끝났음을 확인하는 용도
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return; // 닫힌 저널
+        }
+        try {
+            done.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("채팅 저널 기록 대기 중 취소되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("채팅 저널 기록 대기 오류", e);
+        } catch (TimeoutException e) {
+            throw new IOException("채팅 저널 기록이 끝나지 않았습니다: " + directory, e);
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            PluginLog.warn("닫힌 채팅 저널에는 기록하지 않습니다: " + directory);
+        }
+    }
+
+    /**
+     * index번째(0 = 가장 오래된) 메시지 읽기
+     */
+    public synchronized ChatMessage read(int index) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+
+        Segment segment = segments.get(index / SEGMENT_CAPACITY);
+        int local = index % SEGMENT_CAPACITY;
+
+        if (segment.sealed) {
+            MappedByteBuffer map = mapSealed(segment);
+            ByteBuffer record = map.duplicate();
+            record.position(segment.offsets[local]);
+            return decode(segment, record);
+        }
+
+        // 활성 세그먼트는 계속 커지므로 매핑하지 않고 위치 지정 읽기
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(LENGTH_BYTES);
+        readFully(segment, lengthBuffer, segment.offsets[local]);
+        lengthBuffer.flip();
+        int length = lengthBuffer.getInt(0);
+        if (length < FIXED_BYTES || segment.offsets[local] + LENGTH_BYTES + (long) length > segment.length) {
+            throw corrupted(segment);
+        }
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + length);
+        readFully(segment, record, segment.offsets[local]);
+        record.flip();
+        return decode(segment, record);
+    }
+
+    /**
+     * [from, to) 범위의 메시지 읽기
+     */
+    public synchronized List<ChatMessage> readRange(int from, int to) throws IOException {
+        List<ChatMessage> result = new ArrayList<ChatMessage>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(read(i));
+        }
+        return result;
+    }
+
+    /**
+     * 세션 비우기
+     * head 파일의 시작 세그먼트 번호를 옮긴 뒤 이전 세그먼트를 지운다.
+     * (Windows에서 매핑이 남아 삭제에 실패해도 다음에 열 때 무시되고 정리됨)
+     */
+    public synchronized void clear() throws IOException {
+        closeWriteChannel();
+        int nextBase = segments.get(segments.size() - 1).number + 1;
+        writeHead(nextBase);
+
+        List<Segment> old = new ArrayList<Segment>(segments);
+        segments.clear();
+        count = 0;
+        for (Segment segment : old) {
+            segment.map = null;
+            deleteSegmentFile(segment.file);
+        }
+
+        createSegment(nextBase);
+    }
+
+    /**
+     * 남은 쓰기를 마치고 파일 핸들 정리
+     * (쓰기 작업이 이 잠금을 잡으므로 기다리는 동안은 잠금을 잡지 않음)
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                PluginLog.warn("채팅 저널 기록이 끝나지 않아 그대로 닫습니다: " + directory);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                closeWriteChannel();
+            } catch (IOException e) {
+                PluginLog.warn("채팅 저널 닫기 오류", e);
+            }
+            for (Segment segment : segments) {
+                segment.map = null;
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        int base = readHead();
+
+        File[] files = directory.listFiles();
+        List<Integer> numbers = new ArrayList<Integer>();
+        if (files != null) {
+            for (File file : files) {
+                int number = parseSegmentNumber(file.getName());
+                if (number < 0) {
+                    continue;
+                }
+                if (number < base) {
+                    deleteSegmentFile(file); // clear() 후 남은 세그먼트
+                } else {
+                    numbers.add(number);
+                }
+            }
+        }
+        Integer[] sorted = numbers.toArray(new Integer[numbers.size()]);
+        Arrays.sort(sorted);
+
+        for (int i = 0; i < sorted.length; i++) {
+            Segment segment = new Segment(sorted[i], segmentFile(sorted[i]));
+            segment.length = segment.file.length();
+            segments.add(segment);
+
+            if (i < sorted.length - 1) {
+                // 봉인된 세그먼트는 항상 가득 차 있으므로 읽을 때까지 열지 않음
+                segment.sealed = true;
+                segment.recordCount = SEGMENT_CAPACITY;
+            } else {
+                indexActive(segment);
+            }
+            count += segment.recordCount;
+        }
+
+        if (segments.isEmpty()) {
+            createSegment(base);
+        }
+    }
+
+    /**
+     * 활성 세그먼트의 레코드 헤더만 읽어 위치 색인 (잘린 마지막 레코드는 버림)
+     */
+    private void indexActive(Segment segment) throws IOException {
+        FileChannel channel = getWriteChannel(segment);
+        long fileLength = channel.size();
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(LENGTH_BYTES);
+
+        long position = 0;
+        while (segment.recordCount < SEGMENT_CAPACITY && position + LENGTH_BYTES <= fileLength) {
+            lengthBuffer.clear();
+            readFully(segment, lengthBuffer, position);
+            int length = lengthBuffer.getInt(0);
+            if (length < FIXED_BYTES || position + LENGTH_BYTES + length > fileLength) {
+                break;
+            }
+            segment.offsets[segment.recordCount++] = (int) position;
+            position += LENGTH_BYTES + length;
+        }
+
+        if (position < fileLength) {
+            // 기록 도중 종료되어 남은 불완전한 레코드 제거
+            channel.truncate(position);
+        }
+        segment.length = position;
+    }
+
+    /**
+     * 봉인된 세그먼트를 처음 읽을 때 매핑하고 레코드 위치 색인
+     * 레코드 길이가 파일 범위를 벗어나면 손상으로 보고 매핑을 버린다.
+     */
+    private MappedByteBuffer mapSealed(Segment segment) throws IOException {
+        if (segment.map != null) {
+            return segment.map;
+        }
+
+        MappedByteBuffer map;
+        FileChannel channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ);
+        try {
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            channel.close(); // 매핑은 채널을 닫아도 유지됨
+        }
+
+        long position = 0;
+        for (int i = 0; i < segment.recordCount; i++) {
+            if (position + LENGTH_BYTES > map.limit()) {
+                throw corrupted(segment);
+            }
+            int length = map.getInt((int) position);
+            if (length < FIXED_BYTES || position + LENGTH_BYTES + length > map.limit()) {
+                throw corrupted(segment);
+            }
+            segment.offsets[i] = (int) position;
+            position += LENGTH_BYTES + length;
+        }
+        segment.map = map;
+        return map;
+    }
+
+    private Segment createSegment(int number) throws IOException {
+        Segment segment = new Segment(number, segmentFile(number));
+        segments.add(segment);
+        getWriteChannel(segment);
+        return segment;
+    }
+
+    private FileChannel getWriteChannel(Segment segment) throws IOException {
+        if (writeChannel == null) {
+            writeChannel = FileChannel.open(segment.file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return writeChannel;
+    }
+
+    private void closeWriteChannel() throws IOException {
+        if (writeChannel != null) {
+            writeChannel.close();
+            writeChannel = null;
+        }
+    }
+
+    private void readFully(Segment segment, ByteBuffer buffer, long position) throws IOException {
+        FileChannel channel = getWriteChannel(segment);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw corrupted(segment);
+            }
+        }
+    }
+
+    private ByteBuffer encode(ChatMessage message) {
+        byte[] model = message.getModel() != null ? message.getModel().getBytes(UTF8) : null;
+        byte[] content = message.getContent() != null ? message.getContent().getBytes(UTF8) : new byte[0];
+        int modelLength = model != null ? model.length : 0;
+
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_BYTES + FIXED_BYTES + modelLength + content.length);
+        record.putInt(FIXED_BYTES + modelLength + content.length);
+        record.put((byte) message.getType().ordinal());
+        record.putLong(message.getTimestamp());
+        record.putShort(model != null ? (short) model.length : (short) -1);
+        if (model != null) {
+            record.put(model);
+        }
+        record.put(content);
+        record.flip();
+        return record;
+    }
+
+    private ChatMessage decode(Segment segment, ByteBuffer record) throws IOException {
+        if (record.remaining() < LENGTH_BYTES + FIXED_BYTES) {
+            throw corrupted(segment);
+        }
+        int length = record.getInt();
+        if (length < FIXED_BYTES || length > record.remaining()) {
+            throw corrupted(segment);
+        }
+        int ordinal = record.get();
+        ChatMessage.Type[] types = ChatMessage.Type.values();
+        if (ordinal < 0 || ordinal >= types.length) {
+            throw corrupted(segment);
+        }
+        long timestamp = record.getLong();
+        short modelLength = record.getShort();
+        int contentLength = length - FIXED_BYTES - Math.max(0, modelLength);
+        if (modelLength < -1 || contentLength < 0) {
+            throw corrupted(segment);
+        }
+
+        String model = null;
+        if (modelLength >= 0) {
+            byte[] modelBytes = new byte[modelLength];
+            record.get(modelBytes);
+            model = new String(modelBytes, UTF8);
+        }
+
+        byte[] content = new byte[contentLength];
+        record.get(content);
+        return new ChatMessage(types[ordinal], new String(content, UTF8), model, timestamp);
+    }
+
+    private static IOException corrupted(Segment segment) {
+        return new IOException("채팅 저널이 손상되었습니다: " + segment.file);
+    }
+
+    private int readHead() throws IOException {
+        File head = new File(directory, HEAD_FILE);
+        if (!head.isFile()) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(head.toPath());
+        try {
+            return Integer.parseInt(new String(bytes, UTF8).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void writeHead(int base) throws IOException {
+        Files.write(new File(directory, HEAD_FILE).toPath(), String.valueOf(base).getBytes(UTF8));
+    }
+
+    private File segmentFile(int number) {
+        return new File(directory, String.format("%08d", number) + SEGMENT_SUFFIX);
+    }
+
+    private int parseSegmentNumber(String fileName) {
+        if (!fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void deleteSegmentFile(File file) {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * 세그먼트 파일 하나의 상태
+     */
+    private static class Segment {
+        final int number;
+        final File file;
+        final int[] offsets = new int[SEGMENT_CAPACITY]; // 레코드 시작 위치
+        int recordCount;
+        long length;
+        boolean sealed;
+        MappedByteBuffer map; // 봉인된 세그먼트만, 처음 읽을 때 매핑
+
+        Segment(int number, File file) {
+            this.number = number;
+            this.file = file;
+        }
+    }
+}
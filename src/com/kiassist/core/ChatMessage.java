@@ -20,6 +20,7 @@ public class ChatMessage {
     private String content;
     private long timestamp;
     private String model; // 사용된 모델명
+    private int estimatedTokens = -1; // 토큰 수 근사치 캐시 (-1: 미계산)
     
     public ChatMessage(Type type, String content) {
         this.type = type;
@@ -32,14 +33,35 @@ public class ChatMessage {
         this.model = model;
     }
     
+    /**
+     * 저장된 메시지 복원용 (원래 시각 유지)
+     */
+    public ChatMessage(Type type, String content, String model, long timestamp) {
+        this(type, content, model);
+        this.timestamp = timestamp;
+    }
+    
     // Getters
     public Type getType() { return type; }
     public String getContent() { return content; }
     public long getTimestamp() { return timestamp; }
     public String getModel() { return model; }
     
+    /**
+     * 토큰 수 근사치 (처음 요청할 때 한 번만 계산)
+     */
+    public int getEstimatedTokens() {
+        if (estimatedTokens < 0) {
+            estimatedTokens = ContextWindowBuilder.estimateTokens(content);
+        }
+        return estimatedTokens;
+    }
+    
     // Setters
-    public void setContent(String content) { this.content = content; }
+    public void setContent(String content) {
+        this.content = content;
+        this.estimatedTokens = -1;
+    }
     public void setModel(String model) { this.model = model; }
     
     /**
@@ -0,0 +1,73 @@
+package com.kiassist.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * 채팅 페이지(index.html)와 web 자원을 플러그인 상태 디렉터리에 풀어놓는 클래스
+ * 브라우저가 file URL로 페이지를 열면 스크립트를 다시 파싱하지 않고 캐시할 수 있다.
+ * 내용이 바뀐 파일만 다시 쓰고, 한 번 설치한 뒤에는 같은 프로세스에서 재확인하지 않는다.
+ * JDK 7 호환
+ */
+public class ChatPageInstaller {
+
+    public static final String PAGE_FILE = "index.html";
+
+    private static final String[] ASSETS = {
+        WebAssetCache.MARKED_JS,
+        WebAssetCache.HIGHLIGHT_JS,
+        WebAssetCache.HIGHLIGHT_CSS
+    };
+
+    private static File installedPage;
+
+    private ChatPageInstaller() {
+    }
+
+    /**
+     * 디렉터리에 페이지와 자원을 설치하고 index.html 파일 반환
+     */
+    public static synchronized File install(File directory, MarkdownToHtmlConverter converter) throws IOException {
+        File page = new File(directory, PAGE_FILE);
+        if (page.equals(installedPage) && page.isFile()) {
+            return page;
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("디렉터리를 만들 수 없습니다: " + directory);
+        }
+
+        for (String asset : ASSETS) {
+            String content = WebAssetCache.get(asset);
+            if (content.isEmpty()) {
+                throw new IOException(asset + " 자원을 찾을 수 없습니다.");
+            }
+            writeIfChanged(new File(directory, MarkdownToHtmlConverter.assetFileName(asset)), content);
+        }
+        writeIfChanged(page, converter.createLinkedChatPageHTML());
+
+        installedPage = page;
+        return page;
+    }
+
+    /**
+     * 설치 상태 초기화 (플러그인 종료 시)
+     */
+    public static synchronized void reset() {
+        installedPage = null;
+    }
+
+    /**
+     * 기존 파일과 내용이 다를 때만 기록 (수정 시각이 유지되어 브라우저 캐시가 살아 있음)
+     */
+    private static void writeIfChanged(File file, String content) throws IOException {
+        byte[] bytes = content.getBytes("UTF-8");
+        if (file.isFile() && file.length() == bytes.length
+                && Arrays.equals(Files.readAllBytes(file.toPath()), bytes)) {
+            return;
+        }
+        Files.write(file.toPath(), bytes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.kiassist.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 채팅 세션 저장소 (세션별 ChatJournal 디렉터리 관리)
+ * 플러그인 상태 디렉터리 아래에 두고 Activator가 생성/정리한다.
+ * JDK 7 호환
+ */
+public class ChatSessionStore {
+
+    private final File directory;
+    private final Map<String, ChatJournal> openJournals;
+    private final Set<String> sessionsInUse;
+
+    public ChatSessionStore(File directory) {
+        this.directory = directory;
+        this.openJournals = new HashMap<String, ChatJournal>();
+        this.sessionsInUse = new HashSet<String>();
+    }
+
+    /**
+     * 뷰가 쓸 세션 저널 열기 (다 쓰면 releaseSession 호출)
+     * 다른 뷰가 이미 쓰고 있는 세션이면 (예: 다른 워크벤치 창의 같은 뷰) 두 뷰가 한 저널에
+     * 섞어 기록하지 않도록 번호를 붙인 별도 세션을 연다.
+     */
+    public synchronized ChatJournal openSession(String sessionId) throws IOException {
+        String base = toDirectoryName(sessionId);
+        String key = base;
+        for (int n = 2; sessionsInUse.contains(key); n++) {
+            key = base + "-" + n;
+        }
+        ChatJournal journal = openJournals.get(key);
+        if (journal == null) {
+            journal = ChatJournal.open(new File(directory, key));
+            openJournals.put(key, journal);
+        }
+        sessionsInUse.add(key);
+        return journal;
+    }
+
+    /**
+     * 뷰가 닫혀 세션을 다른 뷰가 쓸 수 있게 함 (저널은 플러그인 종료까지 열어 둠)
+     */
+    public synchronized void releaseSession(ChatJournal journal) {
+        for (Map.Entry<String, ChatJournal> entry : openJournals.entrySet()) {
+            if (entry.getValue() == journal) {
+                sessionsInUse.remove(entry.getKey());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 열린 저널 모두 닫기 (플러그인 종료 시)
+     */
+    public synchronized void close() {
+        for (ChatJournal journal : openJournals.values()) {
+            journal.close();
+        }
+        openJournals.clear();
+        sessionsInUse.clear();
+    }
+
+    /**
+     * 세션 ID를 안전한 디렉터리 이름으로 변환
+     */
+    private String toDirectoryName(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return "default";
+        }
+        return sessionId.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+}
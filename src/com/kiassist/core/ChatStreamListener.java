@@ -0,0 +1,16 @@
+package com.kiassist.core;
+
+/**
+ * 스트리밍 응답 수신 리스너
+ * LLMClient가 SSE 청크를 파싱할 때마다 토큰 조각(delta)을 전달한다.
+ * 호출은 요청을 수행하는 백그라운드 스레드에서 일어나므로
+ * UI 갱신은 구현체에서 Display.asyncExec 등으로 넘겨야 한다.
+ */
+public interface ChatStreamListener {
+
+    /**
+     * 새로 도착한 토큰 조각
+     * @param delta 이번 청크에서 추가된 텍스트 (빈 문자열은 전달되지 않음)
+     */
+    void onDelta(String delta);
+}
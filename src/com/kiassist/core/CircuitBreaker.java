@@ -0,0 +1,122 @@
+package com.kiassist.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 모델(ModelConfig.getId())별 회로 차단기
+ *
+ * 엔드포인트 장애가 연속으로 FAILURE_THRESHOLD번 나면 회로를 열어 OPEN_MILLIS 동안
+ * 요청을 보내지 않고 즉시 CircuitOpenException으로 실패시킨다. 그 뒤 한 요청만
+ * 시험으로 통과시켜 성공하면 닫고, 실패하면 다시 연다.
+ * JDK 7 호환
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_MILLIS = 30000;
+
+    private static final ConcurrentMap<String, CircuitBreaker> breakers =
+        new ConcurrentHashMap<String, CircuitBreaker>();
+
+    private final String modelId;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private CircuitBreaker(String modelId) {
+        this.modelId = modelId;
+    }
+
+    /**
+     * 모델의 회로 차단기 (없으면 생성)
+     */
+    public static CircuitBreaker forModel(String modelId) {
+        CircuitBreaker breaker = breakers.get(modelId);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(modelId);
+            breaker = breakers.putIfAbsent(modelId, created);
+            if (breaker == null) {
+                breaker = created;
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * 요청을 보내기 전에 호출 (회로가 열려 있으면 예외)
+     * 통과했다면 결과에 따라 recordSuccess/recordFailure/release 중 하나를 반드시 호출한다.
+     */
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.CLOSED) {
+            return;
+        }
+        long remaining = getRemainingOpenMillis();
+        if (state == State.OPEN && remaining == 0) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return;
+        }
+        throw new CircuitOpenException(modelId, remaining);
+    }
+
+    /**
+     * 서버가 응답함 (4xx 등 요청 자체의 오류 포함)
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * 엔드포인트 장애 기록
+     * @return 이번 실패로 회로가 열렸으면 true
+     */
+    public synchronized boolean recordFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 결과를 판단할 수 없이 끝남 (사용자 취소 등)
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && getRemainingOpenMillis() == 0) {
+            return State.HALF_OPEN; // 다음 요청이 시험 요청
+        }
+        return state;
+    }
+
+    /**
+     * 회로가 열려 있다면 시험 요청을 허용할 때까지 남은 시간 (닫혀 있으면 0)
+     */
+    public synchronized long getRemainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long elapsed = (System.nanoTime() - openedAt) / 1000000;
+        return Math.max(0, OPEN_MILLIS - elapsed);
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+}
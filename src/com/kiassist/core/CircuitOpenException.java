@@ -0,0 +1,26 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+
+/**
+ * 회로가 열려 있어 요청을 보내지 않고 즉시 실패한 경우
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long remainingMillis;
+
+    public CircuitOpenException(String modelId, long remainingMillis) {
+        super("모델 " + modelId + "의 요청이 연속으로 실패하여 잠시 요청을 보내지 않습니다.\n" +
+            "약 " + Math.max(1, (remainingMillis + 999) / 1000) + "초 후 다시 시도해주세요.");
+        this.remainingMillis = remainingMillis;
+    }
+
+    /**
+     * 다음 시험 요청을 허용할 때까지 남은 시간
+     */
+    public long getRemainingMillis() {
+        return remainingMillis;
+    }
+}
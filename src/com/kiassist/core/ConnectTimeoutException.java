@@ -0,0 +1,16 @@
+package com.kiassist.core;
+
+import java.net.SocketTimeoutException;
+
+/**
+ * 제한 시간 안에 서버에 연결하지 못한 경우 (요청을 보내기 전이므로 다시 보내도 안전)
+ */
+public class ConnectTimeoutException extends SocketTimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConnectTimeoutException(int timeout, SocketTimeoutException cause) {
+        super("서버에 " + timeout / 1000 + "초 동안 연결하지 못했습니다.");
+        initCause(cause);
+    }
+}
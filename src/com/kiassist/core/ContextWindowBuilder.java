@@ -0,0 +1,80 @@
+package com.kiassist.core;
+
+import java.util.List;
+
+/**
+ * 토큰 예산에 맞춰 API 요청에 넣을 대화 컨텍스트를 고르는 클래스
+ * 최신 메시지부터 거꾸로 채우고, 예산을 넘기 직전에서 멈춘다.
+ * 토큰 수는 문자 종류별 근사치이며 메시지마다 한 번만 계산해 캐시한다.
+ * JDK 7 호환
+ */
+public class ContextWindowBuilder {
+
+    // 모델별 컨텍스트 길이를 모를 때 가정하는 보수적인 값 (gpt-3.5-turbo 기준)
+    public static final int DEFAULT_CONTEXT_WINDOW = 4096;
+    // 응답 토큰을 빼고 남은 예산이 이보다 작아지지 않게 함
+    private static final int MIN_CONTEXT_BUDGET = 512;
+    // role 등 메시지 포맷에 드는 토큰
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    /**
+     * 응답용 max_tokens를 제외한 컨텍스트 예산
+     */
+    public static int budgetFor(int maxTokens) {
+        return Math.max(MIN_CONTEXT_BUDGET, DEFAULT_CONTEXT_WINDOW - maxTokens);
+    }
+
+    /**
+     * 메시지 하나의 토큰 수 근사치
+     * 영문/코드(ASCII)는 약 4자당 1토큰, 한글 등 그 외 문자는 1자당 1토큰으로 계산
+     */
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return MESSAGE_OVERHEAD_TOKENS;
+        }
+        
+        int asciiChars = 0;
+        int otherChars = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) {
+                asciiChars++;
+            } else {
+                otherChars++;
+            }
+        }
+        return MESSAGE_OVERHEAD_TOKENS + (asciiChars + 3) / 4 + otherChars;
+    }
+
+    /**
+     * 예산 안에 들어가는 최근 API 메시지 목록
+     * 전체 합계가 예산 이하이면 바로 전체를 반환하고, 넘치면 최신 메시지부터 채운다.
+     * 가장 최근 메시지는 예산을 넘더라도 항상 포함한다.
+     */
+    public static List<ChatMessage> build(ChatHistory chatHistory, int tokenBudget) {
+        List<ChatMessage> apiMessages = chatHistory.getApiMessages();
+        
+        // 누적 합계로 O(1) 판단
+        if (chatHistory.getApiTokenTotal() <= tokenBudget) {
+            return apiMessages;
+        }
+        
+        int end = apiMessages.size();
+        int start = end;
+        int used = 0;
+        while (start > 0) {
+            int tokens = apiMessages.get(start - 1).getEstimatedTokens();
+            if (used + tokens > tokenBudget && start < end) {
+                break;
+            }
+            used += tokens;
+            start--;
+        }
+        
+        // 대화가 assistant 응답으로 시작하면 받지 않는 API가 있으므로 앞쪽 응답은 제외
+        if (start < end - 1 && apiMessages.get(start).getType() == ChatMessage.Type.ASSISTANT) {
+            start++;
+        }
+        
+        return apiMessages.subList(start, end);
+    }
+}
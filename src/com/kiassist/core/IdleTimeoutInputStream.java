@@ -0,0 +1,239 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+
+/**
+ * 응답 본문 스트림에 멈춤 제한 시간을 적용 (PooledHttpTransport 전용)
+ *
+ * 소켓 읽기 제한 시간은 연결 후 바꿀 수 없어 헤더 대기에 맞춘 값(긴 쪽)이 걸려 있고,
+ * 본문을 읽는 중인 연결은 스트림 잠금 때문에 다른 스레드에서 disconnect()로 깨울 수 없다.
+ * 그래서 멈춤 제한이 소켓 제한보다 짧으면 실제 읽기는 별도 읽기 스레드가 하고,
+ * 작업 스레드는 마지막 읽기를 시작한 시각부터 멈춤 제한 시간까지만 기다린 뒤 실패한다.
+ * 남은 읽기 스레드는 현재 읽기가 끝나면(늦어도 소켓 제한 시간) 연결을 끊고 끝난다.
+ * 소켓 제한이 더 짧거나 같으면 그대로 읽고 시간 초과 메시지만 바꾼다.
+ * JDK 7 호환
+ */
+class IdleTimeoutInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final InputStream in;
+    private final HttpURLConnection conn;
+    private final int socketTimeout;
+    private final int idleTimeout; // 0이면 읽기 스레드를 쓰지 않음
+
+    private final Object lock = new Object();
+    // 아래 필드는 lock으로 보호
+    private Thread reader;
+    private final byte[] chunk;
+    private int chunkPos;
+    private int chunkLength;      // 읽기 스레드가 채운 뒤 아직 전달하지 않은 조각 끝 (0이면 없음)
+    private long readStarted;     // 읽기 스레드가 현재 읽기를 시작한 시각 (nanoTime)
+    private boolean eof;
+    private IOException error;
+    private boolean closed;
+    private boolean disconnectRequested;
+
+    /**
+     * @param socketTimeout 연결에 설정된 소켓 읽기 제한 시간 (ms, 0이면 제한 없음)
+     * @param idleTimeout 데이터 사이 간격 제한 (ms, 0이면 제한 없음)
+     */
+    IdleTimeoutInputStream(InputStream in, HttpURLConnection conn, int socketTimeout, int idleTimeout) {
+        this.in = in;
+        this.conn = conn;
+        this.socketTimeout = socketTimeout;
+        boolean watched = idleTimeout > 0 && (socketTimeout == 0 || idleTimeout < socketTimeout);
+        this.idleTimeout = watched ? idleTimeout : 0;
+        this.chunk = watched ? new byte[CHUNK_SIZE] : null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int read;
+        do {
+            read = read(one, 0, 1);
+        } while (read == 0);
+        return read < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (idleTimeout == 0) {
+            try {
+                return in.read(b, off, len);
+            } catch (SocketTimeoutException e) {
+                throw StallWatchdog.idleTimeout(socketTimeout, e);
+            }
+        }
+        if (len == 0) {
+            return 0;
+        }
+        synchronized (lock) {
+            startReader();
+            while (chunkLength == 0 && !eof && error == null && !closed) {
+                long waited = (System.nanoTime() - readStarted) / 1000000;
+                if (waited >= idleTimeout) {
+                    requestDisconnect();
+                    throw StallWatchdog.idleTimeout(idleTimeout, null);
+                }
+                try {
+                    lock.wait(idleTimeout - waited);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    requestDisconnect();
+                    throw new InterruptedIOException("응답을 읽는 중 취소되었습니다.");
+                }
+            }
+            if (chunkLength > 0) {
+                int n = Math.min(len, chunkLength - chunkPos);
+                System.arraycopy(chunk, chunkPos, b, off, n);
+                chunkPos += n;
+                if (chunkPos == chunkLength) {
+                    // 다음 읽기는 지금부터 시작한 것으로 봄 (읽기 스레드가 깨어나기 전에 기다릴 수 있음)
+                    chunkPos = 0;
+                    chunkLength = 0;
+                    readStarted = System.nanoTime();
+                    lock.notifyAll();
+                }
+                return n;
+            }
+            if (error != null) {
+                if (error instanceof SocketTimeoutException) {
+                    throw StallWatchdog.idleTimeout(socketTimeout, (SocketTimeoutException) error);
+                }
+                throw error;
+            }
+            if (closed) {
+                throw new IOException("응답 스트림이 닫혔습니다.");
+            }
+            return -1;
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (idleTimeout == 0) {
+            return in.available();
+        }
+        synchronized (lock) {
+            return chunkLength - chunkPos;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (idleTimeout == 0) {
+            in.close();
+            return;
+        }
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+            if (reader != null && !eof && error == null) {
+                // 읽는 중인 스트림은 이 스레드에서 닫을 수 없으므로 읽기 스레드가 끊음
+                disconnectRequested = true;
+                return;
+            }
+        }
+        in.close();
+    }
+
+    /**
+     * 연결 끊기 (읽기 스레드가 읽는 중이면 그 읽기가 끝난 뒤 읽기 스레드가 끊음)
+     * 호출한 스레드는 블로킹되지 않는다.
+     */
+    void disconnect() {
+        if (idleTimeout != 0) {
+            synchronized (lock) {
+                if (reader != null && !eof && error == null) {
+                    requestDisconnect();
+                    return;
+                }
+                closed = true;
+                lock.notifyAll();
+            }
+        }
+        conn.disconnect();
+    }
+
+    // lock을 잡은 상태에서 호출
+    private void requestDisconnect() {
+        closed = true;
+        disconnectRequested = true;
+        lock.notifyAll();
+    }
+
+    // lock을 잡은 상태에서 호출
+    private void startReader() {
+        if (reader != null) {
+            return;
+        }
+        readStarted = System.nanoTime();
+        reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readLoop();
+            }
+        }, "KI Assist Body Reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readLoop() {
+        try {
+            while (true) {
+                synchronized (lock) {
+                    while (chunkLength > 0 && !closed) {
+                        lock.wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    readStarted = System.nanoTime();
+                }
+                int read;
+                try {
+                    read = in.read(chunk, 0, chunk.length);
+                } catch (IOException e) {
+                    synchronized (lock) {
+                        error = e;
+                        lock.notifyAll();
+                    }
+                    return;
+                }
+                synchronized (lock) {
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        chunkPos = 0;
+                        chunkLength = read;
+                    }
+                    lock.notifyAll();
+                    if (eof) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            synchronized (lock) {
+                requestDisconnect();
+            }
+        } finally {
+            boolean disconnect;
+            synchronized (lock) {
+                disconnect = disconnectRequested;
+            }
+            if (disconnect) {
+                conn.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.kiassist.core;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+/**
+ * LLM 응답 JSON에서 답변 텍스트만 뽑아내는 단일 패스 추출기 (org.json.JSONTokener 기반)
+ *
+ * 문서 전체를 JSONObject로 만들지 않고, 지정한 경로 위의 값만 따라 내려가며
+ * 나머지 값은 문자 단위로 건너뛴다. 대상 문자열을 찾는 즉시 읽기를 멈추므로
+ * 수백 KB짜리 코드 답변도 한 번만 훑는다. 이스케이프(\\uXXXX 포함)는
+ * JSONTokener.nextString이 처리한다.
+ * JDK 7 호환
+ */
+public class JsonResponseExtractor {
+
+    // OpenAI chat completions: choices[0].message.content
+    public static final Object[] OPENAI_CONTENT = { "choices", 0, "message", "content" };
+    // Anthropic messages: content[0].text
+    public static final Object[] ANTHROPIC_CONTENT = { "content", 0, "text" };
+    // Gemini generateContent: candidates[0].content.parts[0].text
+    public static final Object[] GEMINI_CONTENT = { "candidates", 0, "content", "parts", 0, "text" };
+    // 커스텀 LLM: response
+    public static final Object[] CUSTOM_RESPONSE = { "response" };
+
+    private final List<Object[]> paths;
+
+    /**
+     * @param paths 후보 경로 (문자열 = 객체 키, 정수 = 배열 인덱스). 문서에서 먼저 나타나는 값을 반환
+     */
+    public JsonResponseExtractor(Object[]... paths) {
+        this.paths = new ArrayList<Object[]>(paths.length);
+        for (Object[] path : paths) {
+            this.paths.add(path);
+        }
+    }
+
+    /**
+     * 응답 본문에서 후보 경로의 문자열 값 추출
+     * @return 찾은 문자열, 없으면 null
+     * @throws JSONException JSON 문법 오류
+     */
+    public String extract(Reader reader) throws JSONException {
+        JSONTokener tokener = new JSONTokener(reader);
+        return readValue(tokener, paths, 0);
+    }
+
+    public String extract(String json) throws JSONException {
+        return extract(new StringReader(json));
+    }
+
+    /**
+     * 현재 위치의 값을 읽으면서 후보 경로를 따라 내려감
+     */
+    private String readValue(JSONTokener x, List<Object[]> candidates, int depth) throws JSONException {
+        if (candidates.isEmpty()) {
+            skipValue(x);
+            return null;
+        }
+
+        char c = x.nextClean();
+        if (c == '{') {
+            return readObject(x, candidates, depth);
+        }
+        if (c == '[') {
+            return readArray(x, candidates, depth);
+        }
+
+        x.back();
+        skipValue(x);
+        return null;
+    }
+
+    private String readObject(JSONTokener x, List<Object[]> candidates, int depth) throws JSONException {
+        char c = x.nextClean();
+        if (c == '}') {
+            return null;
+        }
+        x.back();
+
+        for (;;) {
+            c = x.nextClean();
+            if (c != '"') {
+                throw x.syntaxError("A JSON object key must begin with '\"'");
+            }
+            String key = x.nextString('"');
+            if (x.nextClean() != ':') {
+                throw x.syntaxError("Expected a ':' after a key");
+            }
+
+            String found = readMember(x, candidates, depth, key);
+            if (found != null) {
+                return found;
+            }
+
+            c = x.nextClean();
+            if (c == '}') {
+                return null;
+            }
+            if (c != ',') {
+                throw x.syntaxError("Expected a ',' or '}'");
+            }
+        }
+    }
+
+    private String readArray(JSONTokener x, List<Object[]> candidates, int depth) throws JSONException {
+        char c = x.nextClean();
+        if (c == ']') {
+            return null;
+        }
+        x.back();
+
+        for (int index = 0; ; index++) {
+            String found = readMember(x, candidates, depth, Integer.valueOf(index));
+            if (found != null) {
+                return found;
+            }
+
+            c = x.nextClean();
+            if (c == ']') {
+                return null;
+            }
+            if (c != ',') {
+                throw x.syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * 객체 키 또는 배열 인덱스 하나에 해당하는 값 처리
+     */
+    private String readMember(JSONTokener x, List<Object[]> candidates, int depth, Object segment)
+            throws JSONException {
+        List<Object[]> matched = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Object[] path = candidates.get(i);
+            if (!segment.equals(path[depth])) {
+                continue;
+            }
+
+            if (path.length == depth + 1) {
+                // 경로 끝: 문자열이면 결과, null 등 다른 값이면 건너뛰고 계속 탐색
+                char c = x.nextClean();
+                if (c == '"') {
+                    return x.nextString('"');
+                }
+                x.back();
+                skipValue(x);
+                return null;
+            }
+
+            if (matched == null) {
+                matched = new ArrayList<Object[]>(candidates.size());
+            }
+            matched.add(path);
+        }
+
+        if (matched == null) {
+            skipValue(x);
+            return null;
+        }
+        return readValue(x, matched, depth + 1);
+    }
+
+    /**
+     * 값 하나를 문자열/객체 생성 없이 건너뜀
+     */
+    private void skipValue(JSONTokener x) throws JSONException {
+        char c = x.nextClean();
+        switch (c) {
+            case '"':
+            case '\'':
+                skipString(x, c);
+                return;
+            case '{':
+                skipContainer(x, '}');
+                return;
+            case '[':
+                skipContainer(x, ']');
+                return;
+            default:
+                // 숫자, true/false/null
+                while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
+                    c = x.next();
+                }
+                x.back();
+        }
+    }
+
+    /**
+     * 객체/배열 끝까지 건너뜀 (내부 문자열의 괄호는 무시)
+     */
+    private void skipContainer(JSONTokener x, char close) throws JSONException {
+        int nesting = 1;
+        for (;;) {
+            char c = x.next();
+            switch (c) {
+                case 0:
+                    throw x.syntaxError("Unterminated " + (close == '}' ? "object" : "array"));
+                case '"':
+                case '\'':
+                    skipString(x, c);
+                    break;
+                case '{':
+                case '[':
+                    nesting++;
+                    break;
+                case '}':
+                case ']':
+                    if (--nesting == 0) {
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void skipString(JSONTokener x, char quote) throws JSONException {
+        for (;;) {
+            char c = x.next();
+            switch (c) {
+                case 0:
+                case '\n':
+                case '\r':
+                    throw x.syntaxError("Unterminated string");
+                case '\\':
+                    x.next(); // 이스케이프된 문자 (\\uXXXX의 16진수는 일반 문자로 건너뜀)
+                    break;
+                default:
+                    if (c == quote) {
+                        return;
+                    }
+            }
+        }
+    }
+}
@@ -2,12 +2,28 @@ package com.kiassist.core;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 
@@ -21,12 +37,89 @@ import com.kiassist.preferences.PreferenceConstants;
 public class LLMClient {
 
     private static final String DEFAULT_API_URL = "https://api.openai.com/v1/chat/completions";
-    private static final int TIMEOUT = 3000000; // 3000초
+    private static final String ANTHROPIC_VERSION = "2023-06-01";
+
+    // 응답 본문 추출기 (상태 없음, 스레드 간 공유 가능)
+    private static final JsonResponseExtractor STANDARD_EXTRACTOR = new JsonResponseExtractor(
+        JsonResponseExtractor.OPENAI_CONTENT,
+        JsonResponseExtractor.ANTHROPIC_CONTENT,
+        JsonResponseExtractor.GEMINI_CONTENT);
+    private static final JsonResponseExtractor CUSTOM_EXTRACTOR = new JsonResponseExtractor(
+        JsonResponseExtractor.CUSTOM_RESPONSE);
+
+    private final LLMTransport transport;
+    private final RetryPolicy retryPolicy = new RetryPolicy();
+
+    // 헤징: 주/보조 요청은 Activator의 헤징 스레드 풀에서 실행
+    private static final int HEDGE_MIN_SAMPLES = 20;
+    private static final long HEDGE_DEFAULT_DELAY_MS = 5000;
+    private static final long HEDGE_MIN_DELAY_MS = 100;
+    private static final long HEDGE_POLL_MS = 10;
+    // 진행 중인 요청과 그 응답, 헤징 요청 (cancelAll에서 중단)
+    private final Set<LLMRequest> activeRequests =
+        Collections.newSetFromMap(new ConcurrentHashMap<LLMRequest, Boolean>());
+    private final Set<LLMResponse> activeResponses =
+        Collections.newSetFromMap(new ConcurrentHashMap<LLMResponse, Boolean>());
+    private final Set<HedgeRace> activeRaces =
+        Collections.newSetFromMap(new ConcurrentHashMap<HedgeRace, Boolean>());
+
+    public LLMClient() {
+        this(PooledHttpTransport.getInstance());
+    }
+
+    public LLMClient(LLMTransport transport) {
+        this.transport = transport;
+    }
 
     /**
      * 채팅 메시지 전송 (대화 컨텍스트 포함)
      */
     public String sendChatMessage(ChatHistory chatHistory, String modelKey) throws Exception {
+        return executeChatRequest(chatHistory, modelKey, null);
+    }
+
+    /**
+     * 채팅 메시지 스트리밍 전송 (SSE, "stream": true)
+     * 토큰 조각이 도착할 때마다 listener로 전달하고, 완료되면 전체 응답을 반환한다.
+     * 스트리밍을 지원하지 않는 커스텀 모델은 전체 응답을 한 번에 전달한다.
+     */
+    public String sendChatMessageStream(ChatHistory chatHistory, String modelKey,
+                                        ChatStreamListener listener) throws Exception {
+        return executeChatRequest(chatHistory, modelKey, listener);
+    }
+
+    /**
+     * 이 클라이언트로 진행 중인 모든 요청의 연결을 끊어 중단 (UI 스레드에서 호출해도 블로킹하지 않음)
+     * 응답 헤더를 기다리는 요청은 바로 깨어나 InterruptedIOException으로 빠져나온다.
+     * 본문을 읽는 중인 연결은 disconnect()가 읽기 중인 스레드의 스트림 잠금을 기다리므로
+     * 별도 스레드에서 끊으며, 작업 스레드는 지금 읽는 조각이 도착하거나 멈춤 제한 시간이
+     * 지나면 빠져나온다.
+     */
+    public void cancelAll() {
+        for (LLMRequest request : activeRequests) {
+            request.abort(); // 응답 헤더를 기다리는 중이면 연결도 끊음
+        }
+        if (!activeResponses.isEmpty()) {
+            final List<LLMResponse> responses = new ArrayList<LLMResponse>(activeResponses);
+            Thread aborter = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (LLMResponse response : responses) {
+                        response.abort();
+                    }
+                }
+            }, "KI Assist Cancel");
+            aborter.setDaemon(true);
+            aborter.start();
+        }
+        // 헤징 요청의 각 쪽은 자기 LLMClient로 실행되므로 따로 중단
+        for (HedgeRace race : activeRaces) {
+            race.cancelAll();
+        }
+    }
+
+    private String executeChatRequest(ChatHistory chatHistory, String modelKey,
+                                      ChatStreamListener listener) throws Exception {
         
         // 설정값 안전하게 가져오기
         IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(Activator.PLUGIN_ID);
@@ -38,12 +131,21 @@ public class LLMClient {
         String apiUrl = prefs.get(PreferenceConstants.API_URL, DEFAULT_API_URL);
         
         // 커스텀 모델 처리
+        ModelConfig config = ModelConfigManager.getInstance().getModelById(modelKey);
         if ("ki-assist-custom".equals(modelKey)) {
             apiUrl = prefs.get(PreferenceConstants.CUSTOM_API_URL, DEFAULT_API_URL);
             String customKey = prefs.get(PreferenceConstants.CUSTOM_API_KEY, "");
             if (!customKey.isEmpty()) {
                 apiKey = customKey; // 커스텀 API 키가 있으면 사용
             }
+        } else if (config != null) {
+            // 모델 설정에 엔드포인트/키가 있으면 사용 (없으면 전역 설정)
+            if (config.getApiUrl() != null && !config.getApiUrl().isEmpty()) {
+                apiUrl = config.getApiUrl();
+            }
+            if (config.getApiKey() != null && !config.getApiKey().isEmpty()) {
+                apiKey = config.getApiKey();
+            }
         }
         
         if (apiKey.isEmpty()) {
@@ -52,39 +154,381 @@ public class LLMClient {
                 "또는 Window → Preferences → KI Assist에서 설정하세요.");
         }
 
-        // 나머지 HTTP 호출 코드는 동일
-        URL url = new URL(apiUrl);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        // 커스텀 LLM(prompt/response 방식)은 스트리밍 미지원
+        boolean stream = listener != null && !"ki-assist-custom".equals(modelKey);
+
+        // JSON 요청 본문 생성 (채팅 히스토리 포함)
+        String jsonRequest = createChatJsonRequest(chatHistory, modelKey, stream);
+        PluginLog.payload("요청 [" + modelKey + "]", jsonRequest);
+        
+        // 같은 요청의 응답이 캐시에 있으면 서버에 보내지 않음
+        // (temperature가 0인 결정적 요청만, 샘플링하는 요청은 매번 새 답변을 받음)
+        ResponseCache cache = isDeterministic(prefs) ? getResponseCache() : null;
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = ResponseCache.keyFor(modelKey, apiUrl, stream ? withoutStreamFlag(jsonRequest) : jsonRequest);
+            String cached = cache.get(cacheKey, getCacheTtlMillis());
+            if (cached != null) {
+                LatencyMetrics.getInstance().getStats(modelKey).recordCacheHit();
+                PluginLog.debug("요청 [" + modelKey + "] 캐시에서 응답");
+                if (listener != null) {
+                    listener.onDelta(cached);
+                }
+                return cached;
+            }
+        }
+        
+        LLMRequest request = new LLMRequest(apiUrl, jsonRequest);
+        request.setHeader("Content-Type", "application/json");
+        setAuthHeaders(request, apiUrl, apiKey);
+        if (stream) {
+            request.setHeader("Accept", "text/event-stream");
+            request.setStream(true);
+        }
+        applyTimeouts(request, config);
         
+        ModelConfig hedgeConfig = getHedgeConfig(modelKey);
+        RequestExecutor hedgeExecutor = hedgeConfig != null ? getHedgeExecutor() : null;
+        String content = hedgeExecutor != null
+            ? executeHedged(request, modelKey, stream, listener, hedgeConfig, hedgeExecutor)
+            : executeResilient(request, modelKey, stream, listener);
+        if (cacheKey != null) {
+            cache.put(cacheKey, modelKey, content);
+        }
+        return content;
+    }
+
+    /**
+     * 인증 헤더 (Anthropic Messages API는 Bearer 대신 x-api-key와 버전 헤더를 씀)
+     */
+    private static void setAuthHeaders(LLMRequest request, String apiUrl, String apiKey) {
+        if (apiUrl.contains("api.anthropic.com")) {
+            request.setHeader("x-api-key", apiKey);
+            request.setHeader("anthropic-version", ANTHROPIC_VERSION);
+        } else {
+            request.setHeader("Authorization", "Bearer " + apiKey);
+        }
+    }
+
+    private static boolean isAuthHeader(String name) {
+        return "Authorization".equalsIgnoreCase(name) || "x-api-key".equalsIgnoreCase(name)
+            || "anthropic-version".equalsIgnoreCase(name);
+    }
+
+    /**
+     * 헤징 스레드 풀 (플러그인 밖에서 실행 중이면 null, 헤징하지 않음)
+     */
+    private static RequestExecutor getHedgeExecutor() {
+        Activator plugin = Activator.getDefault();
+        return plugin != null ? plugin.getHedgeExecutor() : null;
+    }
+
+    /**
+     * 응답 캐시 (설정에서 껐거나 플러그인 밖에서 실행 중이면 null)
+     */
+    private static ResponseCache getResponseCache() {
+        Activator plugin = Activator.getDefault();
+        if (plugin == null || !plugin.getPreferenceStore().getBoolean(PreferenceConstants.RESPONSE_CACHE)) {
+            return null;
+        }
+        return plugin.getResponseCache();
+    }
+
+    /**
+     * 요청 본문에 들어갈 temperature가 0인지 (createChatJsonRequest와 같은 설정값)
+     */
+    private static boolean isDeterministic(IEclipsePreferences prefs) {
         try {
-            // 요청 설정
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Authorization", "Bearer " + apiKey);
-            conn.setConnectTimeout(TIMEOUT);
-            conn.setReadTimeout(TIMEOUT);
-            conn.setDoOutput(true);
-
-            // JSON 요청 본문 생성 (채팅 히스토리 포함)
-            String jsonRequest = createChatJsonRequest(chatHistory, modelKey);
-            
-            // 요청 전송
-            OutputStreamWriter writer = new OutputStreamWriter(conn.getOutputStream(), "UTF-8");
-            writer.write(jsonRequest);
-            writer.flush();
-            writer.close();
-
-            // 응답 읽기
-            int responseCode = conn.getResponseCode();
-            
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                return readResponse(conn, modelKey);
+            return Double.parseDouble(prefs.get(PreferenceConstants.TEMPERATURE, "0.7").trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static long getCacheTtlMillis() {
+        return Activator.getDefault().getPreferenceStore().getInt(PreferenceConstants.RESPONSE_CACHE_TTL) * 60000L;
+    }
+
+    /**
+     * 스트리밍 여부만 다른 요청이 같은 캐시 키를 갖도록 "stream" 항목 제거
+     * (createStandardJsonRequest가 본문 끝에 붙임)
+     */
+    static String withoutStreamFlag(String jsonRequest) {
+        String flag = ",\"stream\":true}";
+        return jsonRequest.endsWith(flag)
+            ? jsonRequest.substring(0, jsonRequest.length() - flag.length()) + "}"
+            : jsonRequest;
+    }
+
+    private String executeResilient(LLMRequest request, String modelKey, boolean stream,
+                                    ChatStreamListener listener) throws Exception {
+        // 연결 실패와 429/502/503은 지터를 둔 지수 백오프로 재시도하고,
+        // 엔드포인트 장애가 이어지면 회로를 열어 즉시 실패시킴
+        CircuitBreaker breaker = CircuitBreaker.forModel(modelKey);
+        ModelLatencyStats stats = LatencyMetrics.getInstance().getStats(modelKey);
+        DeliveryTracker tracker = listener != null ? new DeliveryTracker(listener) : null;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                breaker.acquire();
+            } catch (CircuitOpenException e) {
+                stats.recordRejection();
+                throw e;
+            }
+            try {
+                String content = executeAttempt(request, modelKey, stream, tracker);
+                breaker.recordSuccess();
+                return content;
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted() || request.isAborted()) {
+                    breaker.release(); // 사용자 취소
+                    throw e;
+                }
+                if (retryPolicy.isEndpointFailure(e)) {
+                    if (breaker.recordFailure()) {
+                        stats.recordCircuitOpen();
+                        PluginLog.warn("모델 [" + modelKey + "] 회로 열림: " + e.getMessage());
+                    }
+                } else {
+                    breaker.recordSuccess();
+                }
+                // 이미 화면에 전달한 조각이 있으면 다시 보내면 내용이 중복됨
+                long delay = tracker != null && tracker.hasDelivered() ? -1 : retryPolicy.getRetryDelay(attempt, e);
+                if (delay < 0) {
+                    throw e;
+                }
+                stats.recordRetry();
+                PluginLog.info("요청 [" + modelKey + "] 재시도 " + attempt + "/" + (retryPolicy.getMaxAttempts() - 1) +
+                    " (" + delay + "ms 후): " + e.getMessage());
+                sleepBeforeRetry(delay);
+            }
+        }
+    }
+
+    private String executeAttempt(LLMRequest request, String modelKey, boolean stream,
+                                  ChatStreamListener listener) throws Exception {
+        // 요청별 지연/크기 기록 (성공 여부와 함께 모델별 통계에 반영)
+        RequestTiming timing = new RequestTiming();
+        request.setTiming(timing);
+        boolean success = false;
+        try {
+            String content = executeRequest(request, modelKey, stream, listener, timing);
+            success = true;
+            PluginLog.payload("응답 [" + modelKey + "]", content);
+            return content;
+        } finally {
+            timing.markEnd();
+            LatencyMetrics.getInstance().record(modelKey, timing, success);
+            if (PluginLog.isDebugEnabled()) {
+                PluginLog.debug("요청 [" + modelKey + "] " + (success ? "완료" : "실패") +
+                    ": 첫 바이트 " + timing.getFirstByteMicros() / 1000 + "ms, 전체 " +
+                    timing.getTotalMicros() / 1000 + "ms, 수신 " + timing.getResponseBytes() + " B");
+            }
+        }
+    }
+
+    /**
+     * 모델에 설정된 헤징 보조 모델 (사용하지 않으면 null)
+     */
+    private static ModelConfig getHedgeConfig(String modelKey) {
+        ModelConfigManager manager = ModelConfigManager.getInstance();
+        ModelConfig config = manager.getModelById(modelKey);
+        if (config == null || config.getHedgeModelId().isEmpty() || config.getHedgeModelId().equals(modelKey)) {
+            return null;
+        }
+        ModelConfig hedge = manager.getModelById(config.getHedgeModelId());
+        if (hedge == null || hedge.getApiUrl() == null || hedge.getApiUrl().isEmpty()) {
+            PluginLog.debug("헤징 보조 모델을 찾을 수 없습니다: " + config.getHedgeModelId());
+            return null;
+        }
+        return hedge;
+    }
+
+    /**
+     * 헤징 요청
+     *
+     * 주 모델 요청을 보내고, p95 첫 바이트 시간 안에 응답 헤더가 오지 않으면 같은 본문을
+     * 보조 모델(다른 게이트웨이의 같은 모델)에도 보낸다. 먼저 답을 내놓는 쪽(스트리밍은 첫 조각,
+     * 아니면 완료)이 이기고 진 쪽은 취소한다. 각 쪽은 별도 LLMClient에서 재시도/회로 차단기를
+     * 그대로 거치며, 통계도 각자의 모델 ID로 기록된다.
+     * 각 쪽은 크기가 제한된 헤징 스레드 풀에서 실행하며, 풀이 가득 차면 헤징 없이 보낸다.
+     * 호출 스레드가 인터럽트되거나 cancelAll이 불리면 이긴 쪽까지 모두 중단한다.
+     */
+    private String executeHedged(LLMRequest request, String modelKey, boolean stream,
+                                 ChatStreamListener listener, ModelConfig hedgeConfig,
+                                 RequestExecutor executor) throws Exception {
+        ModelLatencyStats stats = LatencyMetrics.getInstance().getStats(modelKey);
+        CompletionService<String> completion = new ExecutorCompletionService<String>(executor);
+        HedgeRace race = new HedgeRace(listener, executor);
+        HedgeLeg primary;
+        try {
+            primary = race.start(completion, modelKey, request, stream);
+        } catch (RejectedExecutionException e) {
+            return executeResilient(request, modelKey, stream, listener);
+        }
+        activeRaces.add(race);
+        int started = 1;
+        boolean completed = false;
+        try {
+            long delay = hedgeDelayMillis(stats);
+            if (!race.awaitFirstByte(primary, delay)
+                    && CircuitBreaker.forModel(hedgeConfig.getId()).getState() != CircuitBreaker.State.OPEN) {
+                try {
+                    race.start(completion, hedgeConfig.getId(), createHedgeRequest(request, hedgeConfig), stream);
+                    started++;
+                    stats.recordHedge();
+                    PluginLog.debug("요청 [" + modelKey + "] " + delay + "ms 안에 첫 응답이 없어 [" +
+                        hedgeConfig.getId() + "]에도 요청");
+                } catch (RejectedExecutionException e) {
+                    PluginLog.debug("헤징 스레드가 모두 사용 중이라 보조 요청을 보내지 않음");
+                }
+            }
+
+            Exception firstError = null;
+            for (int i = 0; i < started; i++) {
+                Future<String> done = completion.take();
+                HedgeLeg leg = race.legOf(done);
+                try {
+                    String content = done.get();
+                    if (content != null) {
+                        if (leg != primary) {
+                            stats.recordHedgeWin();
+                        }
+                        completed = true;
+                        return content;
+                    }
+                } catch (CancellationException e) {
+                    // 진 쪽
+                } catch (ExecutionException e) {
+                    Exception cause = e.getCause() instanceof Exception
+                        ? (Exception) e.getCause() : new Exception(e.getCause());
+                    if (race.isWinner(leg)) {
+                        throw cause; // 이미 답을 내보내기 시작한 쪽의 실패
+                    }
+                    if (firstError == null) {
+                        firstError = cause;
+                    }
+                }
+            }
+            if (firstError != null) {
+                throw firstError;
+            }
+            throw new InterruptedIOException("요청이 취소되었습니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("요청이 취소되었습니다.");
+        } finally {
+            activeRaces.remove(race);
+            if (completed) {
+                race.cancelLosers();
             } else {
-                throw new Exception("HTTP Error " + responseCode + ": " + conn.getResponseMessage());
+                race.cancelAll(); // 취소되었거나 실패함: 이긴 쪽도 더 받을 이유가 없음
             }
-            
+        }
+    }
+
+    /**
+     * 헤징 대기 시간: 주 모델 첫 바이트 p95 (표본이 적으면 기본값)
+     */
+    private static long hedgeDelayMillis(ModelLatencyStats stats) {
+        LatencyHistogram firstByte = stats.getFirstByte();
+        if (firstByte.getCount() < HEDGE_MIN_SAMPLES) {
+            return HEDGE_DEFAULT_DELAY_MS;
+        }
+        return Math.max(HEDGE_MIN_DELAY_MS, firstByte.getPercentile(95) / 1000);
+    }
+
+    /**
+     * 같은 본문을 보조 모델의 URL/키로 보내는 요청
+     */
+    private static LLMRequest createHedgeRequest(LLMRequest request, ModelConfig hedgeConfig) {
+        LLMRequest hedge = new LLMRequest(hedgeConfig.getApiUrl(), request.getBody());
+        String apiKey = hedgeConfig.getApiKey();
+        boolean ownKey = apiKey != null && !apiKey.isEmpty();
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            if (!ownKey || !isAuthHeader(header.getKey())) {
+                hedge.setHeader(header.getKey(), header.getValue());
+            }
+        }
+        if (ownKey) {
+            setAuthHeaders(hedge, hedgeConfig.getApiUrl(), apiKey);
+        }
+        hedge.setStream(request.isStream());
+        applyTimeouts(hedge, hedgeConfig);
+        return hedge;
+    }
+
+    /**
+     * 모델별 제한 시간 적용 (설정에 없는 모델은 기본값)
+     */
+    private static void applyTimeouts(LLMRequest request, ModelConfig config) {
+        if (config != null) {
+            request.setConnectTimeout(config.getConnectTimeout());
+            request.setFirstByteTimeout(config.getFirstByteTimeout());
+            request.setIdleTimeout(config.getIdleTimeout());
+        } else {
+            request.setConnectTimeout(ModelConfig.DEFAULT_CONNECT_TIMEOUT_MS);
+            request.setFirstByteTimeout(ModelConfig.DEFAULT_FIRST_BYTE_TIMEOUT_MS);
+            request.setIdleTimeout(ModelConfig.DEFAULT_IDLE_TIMEOUT_MS);
+        }
+    }
+
+    private static void sleepBeforeRetry(long delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("재시도 대기 중 취소되었습니다.");
+        }
+    }
+
+    private String executeRequest(LLMRequest request, String modelKey, boolean stream,
+                                  ChatStreamListener listener, RequestTiming timing) throws Exception {
+        // 연결은 전송 계층이 호스트별로 재사용
+        // 요청은 끝날 때까지 목록에 두어 cancelAll이 응답 헤더 대기와 본문 수신 중 어느 때든 중단 표시를 남김
+        activeRequests.add(request);
+        try {
+            LLMResponse response = transport.execute(request);
+            activeResponses.add(response);
+            try {
+                if (request.isAborted()) {
+                    throw new InterruptedIOException("요청이 취소되었습니다.");
+                }
+                int responseCode = response.getStatusCode();
+                
+                if (responseCode == HttpURLConnection.HTTP_OK) {
+                    if (stream && isEventStream(response)) {
+                        return readStreamResponse(response, listener, timing);
+                    }
+                    
+                    // 서버가 stream 옵션을 무시하고 일반 JSON을 돌려준 경우도 처리
+                    String content = readResponse(response, modelKey, timing);
+                    if (listener != null && !content.isEmpty()) {
+                        listener.onDelta(content);
+                    }
+                    return content;
+                } else {
+                    throw new LLMHttpException(responseCode, response.getStatusMessage(),
+                        RetryPolicy.parseRetryAfter(response.getHeader("Retry-After")));
+                }
+                
+            } finally {
+                activeResponses.remove(response);
+                if (Thread.currentThread().isInterrupted() || request.isAborted()) {
+                    response.abort(); // 취소된 요청의 남은 본문은 읽지 않음
+                } else {
+                    response.close();
+                }
+            }
+        } catch (IOException e) {
+            // 연결을 끊어 생긴 읽기 오류는 취소로 보고 (재시도/회로 차단기 실패로 세지 않음)
+            if (request.isAborted() && !(e instanceof InterruptedIOException)) {
+                InterruptedIOException cancelled = new InterruptedIOException("요청이 취소되었습니다.");
+                cancelled.initCause(e);
+                throw cancelled;
+            }
+            throw e;
         } finally {
-            conn.disconnect();
+            activeRequests.remove(request);
         }
     }
 
@@ -96,7 +540,7 @@ public class LLMClient {
             // 설정 초기화 여부 확인
             String version = prefs.get("kiassist.settings.version", "");
             if (version.isEmpty()) {
-                System.out.println("LLMClient: 설정이 초기화되지 않음 - 기본값 설정");
+                PluginLog.info("LLMClient: 설정이 초기화되지 않음 - 기본값 설정");
                 
                 // 기본값 강제 설정
                 prefs.put(PreferenceConstants.API_URL, DEFAULT_API_URL);
@@ -108,17 +552,17 @@ public class LLMClient {
                 prefs.put("kiassist.settings.version", "1.0.0");
                 
                 prefs.flush();
-                System.out.println("LLMClient: 기본값 설정 완료");
+                PluginLog.debug("LLMClient: 기본값 설정 완료");
             }
         } catch (Exception e) {
-            System.err.println("LLMClient 설정 초기화 오류: " + e.getMessage());
+            PluginLog.error("LLMClient 설정 초기화 오류", e);
         }
     }
 
     /**
      * 채팅용 JSON 요청 생성 (대화 히스토리 포함)
      */
-    private String createChatJsonRequest(ChatHistory chatHistory, String modelKey) {
+    private String createChatJsonRequest(ChatHistory chatHistory, String modelKey, boolean stream) {
         // 설정에서 매개변수 가져오기
         IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(Activator.PLUGIN_ID);
         String maxTokens = prefs.get(PreferenceConstants.MAX_TOKENS, "1000");
@@ -131,7 +575,23 @@ public class LLMClient {
         if ("ki-assist-custom".equals(modelKey)) {
             return createCustomJsonRequest(chatHistory, actualModel, maxTokens, temperature);
         } else {
-            return createStandardJsonRequest(chatHistory, actualModel, maxTokens, temperature);
+            int contextBudget = ContextWindowBuilder.budgetFor(getModelMaxTokens(modelKey, maxTokens));
+            return createStandardJsonRequest(chatHistory, actualModel, maxTokens, temperature, contextBudget, stream);
+        }
+    }
+
+    /**
+     * 모델 설정의 최대 응답 토큰 수 (설정이 없으면 전역 설정값)
+     */
+    private int getModelMaxTokens(String modelKey, String defaultMaxTokens) {
+        ModelConfig config = ModelConfigManager.getInstance().getModelById(modelKey);
+        if (config != null) {
+            return config.getMaxTokens();
+        }
+        try {
+            return Integer.parseInt(defaultMaxTokens.trim());
+        } catch (NumberFormatException e) {
+            return 1000;
         }
     }
 
@@ -180,16 +640,18 @@ public class LLMClient {
 
     /**
      * 표준 LLM용 messages 방식 JSON 생성 (OpenAI, Claude 등)
+     * (벤치마크에서 직접 호출하므로 패키지 공개)
      */
-    private String createStandardJsonRequest(ChatHistory chatHistory, String actualModel,
-                                           String maxTokens, String temperature) {
+    String createStandardJsonRequest(ChatHistory chatHistory, String actualModel,
+                                     String maxTokens, String temperature,
+                                     int contextBudget, boolean stream) {
         StringBuilder json = new StringBuilder();
         json.append("{");
         json.append("\"model\":\"").append(escapeJson(actualModel)).append("\",");
         json.append("\"messages\":[");
         
-        // 대화 히스토리 추가 (최근 20개 메시지만)
-        List<ChatMessage> apiMessages = chatHistory.getRecentApiMessages(20);
+        // 대화 히스토리 추가 (토큰 예산 안에서 최신 메시지부터)
+        List<ChatMessage> apiMessages = ContextWindowBuilder.build(chatHistory, contextBudget);
         for (int i = 0; i < apiMessages.size(); i++) {
             ChatMessage msg = apiMessages.get(i);
             
@@ -204,6 +666,9 @@ public class LLMClient {
         json.append("],");
         json.append("\"max_tokens\":").append(maxTokens).append(",");
         json.append("\"temperature\":").append(temperature);
+        if (stream) {
+            json.append(",\"stream\":true");
+        }
         json.append("}");
         
         return json.toString();
@@ -218,6 +683,12 @@ public class LLMClient {
             return prefs.get(PreferenceConstants.CUSTOM_MODEL_NAME, "gpt-3.5-turbo");
         }
         
+        // 모델 설정의 API 모델명 (예: claude-3-haiku → claude-3-haiku-20240307)
+        ModelConfig config = ModelConfigManager.getInstance().getModelById(modelKey);
+        if (config != null && config.getModelName() != null && !config.getModelName().isEmpty()) {
+            return config.getModelName();
+        }
+        
         // 다른 모델들은 표준 변환
         if ("gpt35turbo".equals(modelKey)) return "gpt-3.5-turbo";
         if ("gpt4".equals(modelKey)) return "gpt-4";
@@ -249,71 +720,301 @@ public class LLMClient {
                   .replace("\t", "\\t");
     }
 
-    private String readResponse(HttpURLConnection conn, String modelKey) throws IOException {
+    private String readResponse(LLMResponse response, String modelKey, RequestTiming timing) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(timing.countResponse(response.getBody()), "UTF-8"));
+        
+        try {
+            // 본문을 문자열로 모으지 않고 스트림에서 바로 파싱 (모델에 따라 다른 필드 파싱)
+            String content = parseJsonResponse(reader, modelKey);
+            // 한 번에 받은 답변은 본문을 다 읽은 시점이 첫 토큰
+            timing.markFirstToken();
+            timing.addTokens(ContextWindowBuilder.estimateTokens(content));
+            return content;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private boolean isEventStream(LLMResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("text/event-stream");
+    }
+
+    /**
+     * SSE 응답을 한 줄씩 읽으면서 data: 청크를 즉시 파싱하여 listener로 전달
+     */
+    private String readStreamResponse(LLMResponse response, ChatStreamListener listener,
+                                      RequestTiming timing) throws IOException {
         BufferedReader reader = new BufferedReader(
-            new InputStreamReader(conn.getInputStream(), "UTF-8"));
+            new InputStreamReader(timing.countResponse(response.getBody()), "UTF-8"));
         
-        StringBuilder response = new StringBuilder();
-        String line;
+        StringBuilder content = new StringBuilder();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("요청이 취소되었습니다.");
+                }
+                
+                // event:, id:, 주석(:), 빈 줄은 무시
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                
+                String delta = parseStreamDelta(data);
+                if (!delta.isEmpty()) {
+                    // SSE 청크 하나를 토큰 하나로 셈
+                    timing.markFirstToken();
+                    timing.addTokens(1);
+                    content.append(delta);
+                    listener.onDelta(delta);
+                }
+            }
+        } finally {
+            reader.close();
+        }
         
-        while ((line = reader.readLine()) != null) {
-            response.append(line);
+        return content.toString();
+    }
+
+    /**
+     * SSE 청크 하나에서 토큰 조각 추출
+     * OpenAI: choices[0].delta.content, Anthropic: content_block_delta의 delta.text
+     */
+    private String parseStreamDelta(String data) throws IOException {
+        JSONObject chunk;
+        try {
+            chunk = new JSONObject(data);
+        } catch (JSONException e) {
+            return ""; // keep-alive 등 JSON이 아닌 청크
         }
-        reader.close();
         
-        // 간단한 JSON 파싱 (모델에 따라 다른 필드 파싱)
-        return parseJsonResponse(response.toString(), modelKey);
+        JSONArray choices = chunk.optJSONArray("choices");
+        if (choices != null && choices.length() > 0) {
+            JSONObject choice = choices.optJSONObject(0);
+            JSONObject delta = choice != null ? choice.optJSONObject("delta") : null;
+            return delta != null ? delta.optString("content", "") : "";
+        }
+        
+        String type = chunk.optString("type", "");
+        if ("content_block_delta".equals(type)) {
+            JSONObject delta = chunk.optJSONObject("delta");
+            return delta != null ? delta.optString("text", "") : "";
+        }
+        if ("error".equals(type)) {
+            JSONObject error = chunk.optJSONObject("error");
+            throw new IOException("스트리밍 오류: " + (error != null ? error.optString("message", data) : data));
+        }
+        
+        return "";
     }
 
-    private String parseJsonResponse(String jsonResponse, String modelKey) {
-        // 디버깅용 - JSON 응답 전체 출력
-        System.out.println("=== JSON Response Debug ===");
-        System.out.println("Model Key: " + modelKey);
-        System.out.println(jsonResponse);
-        System.out.println("=== End JSON Response ===");
+    /**
+     * 비스트리밍 응답 본문에서 답변 추출 (벤치마크에서 직접 호출하므로 패키지 공개)
+     * @throws IOException 본문이 JSON이 아니거나 답변 필드가 없음 (실패한 요청으로 기록됨)
+     */
+    String parseJsonResponse(Reader jsonResponse, String modelKey) throws IOException {
+        // 커스텀 모델은 "response" 필드, 표준 모델은 제공자별 content 경로
+        boolean custom = "ki-assist-custom".equals(modelKey);
+        JsonResponseExtractor extractor = custom ? CUSTOM_EXTRACTOR : STANDARD_EXTRACTOR;
         
         try {
-            // 커스텀 모델은 "response" 필드, 표준 모델은 "content" 필드
-            String fieldName = "ki-assist-custom".equals(modelKey) ? "response" : "content";
-            
-            int fieldStart = jsonResponse.indexOf("\"" + fieldName + "\":");
-            if (fieldStart == -1) {
-                return "응답 파싱 오류: " + fieldName + "를 찾을 수 없습니다.";
+            String content = extractor.extract(jsonResponse);
+            if (content == null) {
+                throw new IOException("응답 파싱 오류: " + (custom ? "response" : "content") + "를 찾을 수 없습니다.");
             }
+            return content;
             
-            fieldStart = jsonResponse.indexOf("\"", fieldStart + fieldName.length() + 3);
-            if (fieldStart == -1) {
-                return "응답 파싱 오류: " + fieldName + " 값을 찾을 수 없습니다.";
+        } catch (JSONException e) {
+            throw new IOException("JSON 파싱 오류: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 조각을 하나라도 전달했는지 기록하는 리스너 (전달 후에는 재시도하지 않음)
+     */
+    private static class DeliveryTracker implements ChatStreamListener {
+        private final ChatStreamListener delegate;
+        private boolean delivered; // 요청 작업 스레드에서만 접근
+
+        DeliveryTracker(ChatStreamListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onDelta(String delta) {
+            delivered = true;
+            delegate.onDelta(delta);
+        }
+
+        boolean hasDelivered() {
+            return delivered;
+        }
+    }
+
+    /**
+     * 헤징 요청 한 건의 경쟁 상태
+     * 먼저 답을 내놓은 쪽(claim)만 화면으로 조각을 전달하고, 나머지는 취소한다.
+     */
+    private class HedgeRace {
+        private final ChatStreamListener listener;
+        private final RequestExecutor executor;
+        private final List<HedgeLeg> legs = new CopyOnWriteArrayList<HedgeLeg>();
+        private HedgeLeg winner; // this 잠금으로 보호
+
+        HedgeRace(ChatStreamListener listener, RequestExecutor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        HedgeLeg start(CompletionService<String> completion, String modelKey, LLMRequest request, boolean stream) {
+            HedgeLeg leg = new HedgeLeg(this, modelKey, request, stream);
+            leg.future = completion.submit(leg);
+            legs.add(leg);
+            if (!isWinner(leg) && hasWinner()) {
+                cancelLater(leg); // 시작하는 사이에 다른 쪽이 이김
             }
-            
-            int fieldEnd = findJsonStringEnd(jsonResponse, fieldStart + 1);
-            if (fieldEnd == -1) {
-                return "응답 파싱 오류: " + fieldName + " 끝을 찾을 수 없습니다.";
+            return leg;
+        }
+
+        HedgeLeg legOf(Future<String> future) {
+            for (HedgeLeg leg : legs) {
+                if (leg.future == future) {
+                    return leg;
+                }
             }
-            
-            String content = jsonResponse.substring(fieldStart + 1, fieldEnd);
-            return unescapeJson(content);
-            
-        } catch (Exception e) {
-            return "JSON 파싱 오류: " + e.getMessage() + "\n\n원본 응답:\n" + jsonResponse;
+            return null;
         }
-    }
 
-    private int findJsonStringEnd(String json, int start) {
-        for (int i = start; i < json.length(); i++) {
-            char c = json.charAt(i);
-            if (c == '"' && (i == 0 || json.charAt(i - 1) != '\\')) {
-                return i;
+        synchronized boolean claim(HedgeLeg leg) {
+            if (winner == null) {
+                winner = leg;
+                notifyAll();
+                cancelLosers();
             }
+            return winner == leg;
+        }
+
+        synchronized boolean isWinner(HedgeLeg leg) {
+            return winner == leg;
+        }
+
+        synchronized boolean hasWinner() {
+            return winner != null;
+        }
+
+        /**
+         * 주 요청의 첫 바이트를 최대 timeout 동안 기다림
+         * @return 첫 바이트가 왔거나 이미 끝났으면 true, 시간이 지나면 false
+         */
+        synchronized boolean awaitFirstByte(HedgeLeg leg, long timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout * 1000000;
+            while (winner == null && !leg.future.isDone() && !leg.hasFirstByte()) {
+                long remaining = (deadline - System.nanoTime()) / 1000000;
+                if (remaining <= 0) {
+                    return false;
+                }
+                // 첫 바이트는 전송 계층이 기록하므로 짧은 간격으로 확인
+                wait(Math.min(remaining, HEDGE_POLL_MS));
+            }
+            return true;
+        }
+
+        /**
+         * 이긴 쪽을 뺀 나머지 취소
+         */
+        void cancelLosers() {
+            for (HedgeLeg leg : legs) {
+                if (!isWinner(leg)) {
+                    cancelLater(leg);
+                }
+            }
+        }
+
+        /**
+         * 이긴 쪽까지 모두 취소 (사용자 취소)
+         */
+        void cancelAll() {
+            for (HedgeLeg leg : legs) {
+                cancelLater(leg);
+            }
+        }
+
+        /**
+         * 연결 끊기는 읽기 중인 스레드를 기다릴 수 있어 별도 스레드에서 (풀이 가득 차면 바로)
+         */
+        private void cancelLater(final HedgeLeg leg) {
+            if (leg.future == null || leg.future.isDone()) {
+                return;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        leg.cancel();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                leg.cancel();
+            }
+        }
+
+        ChatStreamListener listenerFor(final HedgeLeg leg) {
+            if (listener == null) {
+                return null;
+            }
+            return new ChatStreamListener() {
+                @Override
+                public void onDelta(String delta) {
+                    if (claim(leg)) {
+                        listener.onDelta(delta);
+                    }
+                }
+            };
         }
-        return -1;
     }
 
-    private String unescapeJson(String text) {
-        return text.replace("\\\"", "\"")
-                  .replace("\\\\", "\\")
-                  .replace("\\n", "\n")
-                  .replace("\\r", "\r")
-                  .replace("\\t", "\t");
+    /**
+     * 헤징 요청의 한 쪽 (자기 LLMClient로 실행해 따로 취소할 수 있음)
+     */
+    private class HedgeLeg implements Callable<String> {
+        private final HedgeRace race;
+        private final String modelKey;
+        private final LLMRequest request;
+        private final boolean stream;
+        private final LLMClient client = new LLMClient(transport);
+        private volatile Future<String> future;
+
+        HedgeLeg(HedgeRace race, String modelKey, LLMRequest request, boolean stream) {
+            this.race = race;
+            this.modelKey = modelKey;
+            this.request = request;
+            this.stream = stream;
+        }
+
+        /**
+         * @return 이긴 경우 응답, 진 경우 null
+         */
+        @Override
+        public String call() throws Exception {
+            String content = client.executeResilient(request, modelKey, stream, race.listenerFor(this));
+            return race.claim(this) ? content : null;
+        }
+
+        boolean hasFirstByte() {
+            RequestTiming timing = request.getTiming();
+            return timing != null && timing.getFirstByteMicros() >= 0;
+        }
+
+        void cancel() {
+            future.cancel(true);
+            client.cancelAll();
+        }
     }
-}
\ No newline at end of file
+}
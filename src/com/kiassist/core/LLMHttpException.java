@@ -0,0 +1,32 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+
+/**
+ * LLM 서버가 200이 아닌 상태 코드로 응답한 경우
+ * RetryPolicy가 상태 코드와 Retry-After 값으로 재시도 여부를 판단한다.
+ */
+public class LLMHttpException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    /**
+     * @param retryAfterMillis Retry-After 헤더 값 (없으면 -1)
+     */
+    public LLMHttpException(int statusCode, String statusMessage, long retryAfterMillis) {
+        super("HTTP Error " + statusCode + ": " + statusMessage);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kiassist.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LLMTransport로 보낼 POST 요청 정보
+ */
+public class LLMRequest {
+    private String url;
+    private String body;
+    private Map<String, String> headers;
+    private int connectTimeout;
+    private int firstByteTimeout; // 요청 전송 후 응답 헤더까지 (ms, 0이면 제한 없음)
+    private int idleTimeout;      // 데이터 사이 간격 (ms, 0이면 제한 없음)
+    private boolean stream;       // SSE 응답 요청
+    private volatile RequestTiming timing; // 있으면 전송 계층이 연결/첫 바이트 시각 기록
+    private volatile boolean aborted;
+    private Runnable aborter; // this 잠금으로 보호
+    
+    public LLMRequest(String url, String body) {
+        this.url = url;
+        this.body = body;
+        this.headers = new LinkedHashMap<String, String>();
+    }
+    
+    // Getters and Setters
+    public String getUrl() {
+        return url;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+    
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+    
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+    
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+    
+    public int getFirstByteTimeout() {
+        return firstByteTimeout;
+    }
+    
+    public void setFirstByteTimeout(int firstByteTimeout) {
+        this.firstByteTimeout = firstByteTimeout;
+    }
+    
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+    
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    public boolean isStream() {
+        return stream;
+    }
+    
+    public void setStream(boolean stream) {
+        this.stream = stream;
+    }
+    
+    public RequestTiming getTiming() {
+        return timing;
+    }
+    
+    public void setTiming(RequestTiming timing) {
+        this.timing = timing;
+    }
+    
+    /**
+     * 전송 계층이 연결을 연 뒤 등록하는 중단 동작 (응답 헤더를 받으면 null로 해제)
+     * 이미 중단된 요청이면 바로 실행한다.
+     */
+    public void setAborter(Runnable aborter) {
+        boolean runNow;
+        synchronized (this) {
+            this.aborter = aborter;
+            runNow = aborted && aborter != null;
+        }
+        if (runNow) {
+            aborter.run();
+        }
+    }
+    
+    /**
+     * 다른 스레드에서 요청 중단 (응답 헤더를 기다리는 연결도 끊음, 이후 재시도도 하지 않음)
+     */
+    public void abort() {
+        Runnable current;
+        synchronized (this) {
+            aborted = true;
+            current = aborter;
+        }
+        if (current != null) {
+            current.run();
+        }
+    }
+    
+    public boolean isAborted() {
+        return aborted;
+    }
+}
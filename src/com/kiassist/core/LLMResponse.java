@@ -0,0 +1,37 @@
+package com.kiassist.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * LLMTransport가 돌려주는 HTTP 응답
+ * close() 시 남은 본문을 정리하여 연결을 재사용할 수 있게 한다.
+ */
+public interface LLMResponse extends Closeable {
+
+    int getStatusCode() throws IOException;
+
+    String getStatusMessage() throws IOException;
+
+    String getContentType();
+
+    /**
+     * 응답 헤더 값 (없으면 null)
+     */
+    String getHeader(String name);
+
+    /**
+     * 응답 본문 (오류 응답이면 오류 본문, 본문이 없으면 빈 스트림)
+     */
+    InputStream getBody() throws IOException;
+
+    @Override
+    void close();
+
+    /**
+     * 다른 스레드에서 호출하여 연결을 끊음 (연결은 재사용하지 않음)
+     * 다른 스레드가 본문을 읽는 중이면 그 읽기가 돌아올 때까지 기다릴 수 있다.
+     */
+    void abort();
+}
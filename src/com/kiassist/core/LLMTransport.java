@@ -0,0 +1,22 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+
+/**
+ * LLM API 호출용 HTTP 전송 계층
+ * LLMClient는 요청 본문 생성과 응답 파싱만 담당하고,
+ * 실제 연결 관리(커넥션 재사용, 타임아웃 등)는 구현체에 맡긴다.
+ */
+public interface LLMTransport {
+
+    /**
+     * 요청 전송
+     * 반환된 응답은 호출자가 반드시 close() 해야 연결이 풀로 반환된다.
+     */
+    LLMResponse execute(LLMRequest request) throws IOException;
+
+    /**
+     * 보관 중인 연결 및 자원 정리
+     */
+    void close();
+}
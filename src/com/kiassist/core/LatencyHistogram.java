@@ -0,0 +1,114 @@
+package com.kiassist.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 잠금 없는 로그-선형 히스토그램 (음이 아닌 long 값)
+ * 2의 거듭제곱 구간마다 16개 버킷으로 나누어 상대 오차 6.25% 이내로 백분위를 구한다.
+ * 기록은 원자적 증가 한 번이라 여러 요청 스레드에서 동시에 호출해도 된다.
+ * 읽기는 기록과 동시에 일어날 수 있으며, 그때는 약간 어긋난 근사치를 돌려준다.
+ * JDK 7 호환
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 0 ~ Long.MAX_VALUE 전체를 덮는 버킷 수 (지수 4~62 구간 + 0~15)
+    private static final int BUCKET_COUNT = (62 - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 값 기록 (음수는 0으로 기록)
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * 백분위 값 (해당 버킷의 상한, 최댓값을 넘지 않음)
+     * @param percentile 0~100
+     * @return 기록이 없으면 0
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0);
+        rank = Math.max(1, rank);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * 0~15는 값 그대로, 그 이상은 (지수, 상위 4비트)로 버킷 결정
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (exponent - SUB_BUCKET_BITS)); // SUB_BUCKETS ~ 2*SUB_BUCKETS-1
+        int index = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = SUB_BUCKETS + index % SUB_BUCKETS;
+        if (shift >= 62 - SUB_BUCKET_BITS) { // 마지막 구간은 상한이 long 범위를 넘음
+            return Long.MAX_VALUE;
+        }
+        return ((top + 1) << shift) - 1;
+    }
+}
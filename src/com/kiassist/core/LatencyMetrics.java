@@ -0,0 +1,59 @@
+package com.kiassist.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 모델(ModelConfig.getId())별 요청 지연 통계 저장소
+ * 작업 스레드가 요청을 끝낼 때마다 기록하고, 통계 패널이 UI 스레드에서 읽는다.
+ * JDK 7 호환
+ */
+public class LatencyMetrics {
+
+    private static LatencyMetrics instance;
+
+    private final ConcurrentMap<String, ModelLatencyStats> models =
+        new ConcurrentHashMap<String, ModelLatencyStats>();
+
+    public static synchronized LatencyMetrics getInstance() {
+        if (instance == null) {
+            instance = new LatencyMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * 끝난 요청 기록
+     */
+    public void record(String modelId, RequestTiming timing, boolean success) {
+        getStats(modelId).record(timing, success);
+    }
+
+    /**
+     * 모델 통계 (없으면 생성)
+     */
+    public ModelLatencyStats getStats(String modelId) {
+        ModelLatencyStats stats = models.get(modelId);
+        if (stats == null) {
+            ModelLatencyStats created = new ModelLatencyStats(modelId);
+            stats = models.putIfAbsent(modelId, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 요청이 한 번 이상 기록된 모델 통계 목록
+     */
+    public List<ModelLatencyStats> getAllStats() {
+        return new ArrayList<ModelLatencyStats>(models.values());
+    }
+
+    public void reset() {
+        models.clear();
+    }
+}
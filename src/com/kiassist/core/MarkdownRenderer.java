@@ -0,0 +1,852 @@
+package com.kiassist.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Java 마크다운 렌더러 (marked.js 대체용)
+ * 느린 브라우저 엔진에서 marked.parse를 돌리지 않도록 서버(플러그인) 쪽에서 HTML을 만든다.
+ * LLM 답변에 쓰이는 범위(제목, 문단, 목록, 인용, 표, 코드 블록, 인라인 강조/코드/링크)를 지원하며
+ * 코드 블록과 링크는 setupMarkedRenderer의 커스텀 렌더러와 같은 마크업을 만든다.
+ * 원문 HTML은 그대로 통과시키지 않고 이스케이프한다.
+ *
+ * 렌더링 결과는 내용 문자열을 키로 하는 LRU 캐시에 보관하므로
+ * 같은 메시지를 다시 그릴 때(히스토리 복원, 뷰포트 재로딩 등)는 비용이 들지 않는다.
+ * JDK 7 호환
+ */
+public class MarkdownRenderer {
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final Pattern HEADING = Pattern.compile("^ {0,3}(#{1,6})(?:[ \\t]+(.*?))?(?:[ \\t]+#+)?[ \\t]*$");
+    private static final Pattern HR = Pattern.compile("^ {0,3}([-*_])(?:[ \\t]*\\1){2,}[ \\t]*$");
+    private static final Pattern FENCE = Pattern.compile("^( {0,3})(`{3,}|~{3,})[ \\t]*([^`\\s]*)[^`]*$");
+    private static final Pattern LIST_ITEM = Pattern.compile("^( {0,3})([-*+]|\\d{1,9}[.)])([ \\t]+|$)(.*)$");
+    private static final Pattern TABLE_DELIMITER = Pattern.compile("^ {0,3}\\|?[ \\t]*:?-+:?[ \\t]*(\\|[ \\t]*:?-+:?[ \\t]*)*\\|?[ \\t]*$");
+
+    private final Map<String, String> cache;
+
+    public MarkdownRenderer() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize 캐시에 보관할 최대 렌더링 결과 수
+     */
+    public MarkdownRenderer(final int cacheSize) {
+        this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * 마크다운을 HTML로 변환 (캐시 사용)
+     */
+    public String render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        synchronized (cache) {
+            String html = cache.get(markdown);
+            if (html != null) {
+                return html;
+            }
+        }
+        String html = renderUncached(markdown);
+        synchronized (cache) {
+            cache.put(markdown, html);
+        }
+        return html;
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 캐시 없이 변환
+     */
+    public String renderUncached(String markdown) {
+        String[] lines = markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        StringBuilder out = new StringBuilder(markdown.length() + markdown.length() / 4);
+        renderBlocks(lines, 0, lines.length, false, out);
+        return out.toString();
+    }
+
+    // ------------------------------------------------------------------
+    // 블록 요소
+    // ------------------------------------------------------------------
+
+    /**
+     * [from, to) 줄을 블록 단위로 변환
+     * @param tight 촘촘한 목록 항목 안이면 문단을 p 태그 없이 출력
+     */
+    private void renderBlocks(String[] lines, int from, int to, boolean tight, StringBuilder out) {
+        int i = from;
+        while (i < to) {
+            String line = lines[i];
+            if (isBlank(line)) {
+                i++;
+                continue;
+            }
+
+            Matcher m = FENCE.matcher(line);
+            if (m.matches()) {
+                i = renderFencedCode(lines, i, to, m, out);
+                continue;
+            }
+
+            if (leadingColumns(line) >= 4) {
+                i = renderIndentedCode(lines, i, to, out);
+                continue;
+            }
+
+            m = HEADING.matcher(line);
+            if (m.matches()) {
+                int level = m.group(1).length();
+                String text = m.group(2) != null ? m.group(2) : "";
+                out.append("<h").append(level).append('>');
+                renderInline(text, out);
+                out.append("</h").append(level).append(">\n");
+                i++;
+                continue;
+            }
+
+            if (HR.matcher(line).matches()) {
+                out.append("<hr>\n");
+                i++;
+                continue;
+            }
+
+            if (line.trim().startsWith(">")) {
+                i = renderBlockquote(lines, i, to, out);
+                continue;
+            }
+
+            m = LIST_ITEM.matcher(line);
+            if (m.matches()) {
+                i = renderList(lines, i, to, out);
+                continue;
+            }
+
+            if (i + 1 < to && line.indexOf('|') >= 0 && TABLE_DELIMITER.matcher(lines[i + 1]).matches()
+                    && lines[i + 1].indexOf('-') >= 0) {
+                i = renderTable(lines, i, to, out);
+                continue;
+            }
+
+            i = renderParagraph(lines, i, to, tight, out);
+        }
+    }
+
+    private int renderFencedCode(String[] lines, int start, int to, Matcher open, StringBuilder out) {
+        int indent = open.group(1).length();
+        String fence = open.group(2);
+        String lang = open.group(3);
+
+        StringBuilder code = new StringBuilder();
+        int i = start + 1;
+        for (; i < to; i++) {
+            String line = lines[i];
+            String trimmed = line.trim();
+            if (leadingColumns(line) < 4 && trimmed.length() >= fence.length()
+                    && trimmed.charAt(0) == fence.charAt(0) && isRun(trimmed, fence.charAt(0))) {
+                i++;
+                break;
+            }
+            if (code.length() > 0 || i > start + 1) {
+                code.append('\n');
+            }
+            code.append(stripIndent(line, indent));
+        }
+        appendCodeBlock(code.toString(), lang, out);
+        return i;
+    }
+
+    private int renderIndentedCode(String[] lines, int start, int to, StringBuilder out) {
+        int end = start;
+        int i = start;
+        while (i < to && (isBlank(lines[i]) || leadingColumns(lines[i]) >= 4)) {
+            if (!isBlank(lines[i])) {
+                end = i + 1;
+            }
+            i++;
+        }
+        StringBuilder code = new StringBuilder();
+        for (int j = start; j < end; j++) {
+            if (j > start) {
+                code.append('\n');
+            }
+            code.append(stripIndent(lines[j], 4));
+        }
+        appendCodeBlock(code.toString(), "", out);
+        return end;
+    }
+
+    /**
+     * setupMarkedRenderer의 renderer.code와 같은 코드 블록 마크업
+     */
+    private void appendCodeBlock(String code, String lang, StringBuilder out) {
+        String langText = lang == null || lang.isEmpty() ? "code" : lang;
+        out.append("<div class=\"code-block-container\"><div class=\"code-header\"><span class=\"language-tag\">");
+        escapeHtml(langText, out);
+        out.append("</span><button class=\"copy-btn\" type=\"button\" onclick=\"handleCopyCode(event)\">");
+        out.append("<span class=\"copy-text\">복사</span></button></div><pre><code class=\"language-");
+        escapeHtml(langText, out);
+        out.append("\">");
+        escapeHtml(code, out);
+        out.append("</code></pre></div>\n");
+    }
+
+    private int renderBlockquote(String[] lines, int start, int to, StringBuilder out) {
+        List<String> inner = new ArrayList<String>();
+        int i = start;
+        while (i < to && !isBlank(lines[i])) {
+            String trimmed = lines[i].trim();
+            if (trimmed.startsWith(">")) {
+                String rest = trimmed.substring(1);
+                inner.add(rest.startsWith(" ") ? rest.substring(1) : rest);
+            } else {
+                inner.add(lines[i]); // 게으른 연속 줄
+            }
+            i++;
+        }
+        out.append("<blockquote>\n");
+        String[] innerLines = inner.toArray(new String[inner.size()]);
+        renderBlocks(innerLines, 0, innerLines.length, false, out);
+        out.append("</blockquote>\n");
+        return i;
+    }
+
+    private int renderList(String[] lines, int start, int to, StringBuilder out) {
+        Matcher first = LIST_ITEM.matcher(lines[start]);
+        first.matches();
+        boolean ordered = Character.isDigit(first.group(2).charAt(0));
+        char delimiter = first.group(2).charAt(first.group(2).length() - 1);
+        int baseIndent = first.group(1).length();
+
+        List<List<String>> items = new ArrayList<List<String>>();
+        boolean tight = true;
+        int i = start;
+        int contentIndent = 0;
+        List<String> current = null;
+        boolean previousBlank = false;
+
+        while (i < to) {
+            String line = lines[i];
+            if (isBlank(line)) {
+                if (current != null) {
+                    current.add("");
+                }
+                previousBlank = true;
+                i++;
+                continue;
+            }
+
+            Matcher m = LIST_ITEM.matcher(line);
+            int indent = leadingColumns(line);
+            if (m.matches() && (current == null || indent < contentIndent)) {
+                // 같은 종류의 새 항목, 다른 종류면 목록 끝
+                if (!sameListType(m, ordered, delimiter) || indent > baseIndent + 3) {
+                    break;
+                }
+                if (previousBlank && current != null) {
+                    tight = false;
+                }
+                current = new ArrayList<String>();
+                items.add(current);
+                String marker = m.group(2);
+                String spacing = m.group(3);
+                int spaces = spacing.length() > 4 ? 1 : Math.max(1, spacing.length());
+                contentIndent = m.group(1).length() + marker.length() + spaces;
+                String rest = spacing.length() > 4 ? spacing.substring(1) + m.group(4) : m.group(4);
+                current.add(rest);
+                previousBlank = false;
+                i++;
+                continue;
+            }
+
+            if (indent >= contentIndent) {
+                if (previousBlank) {
+                    tight = false;
+                }
+                current.add(stripIndent(line, contentIndent));
+            } else if (!previousBlank && !startsBlock(line)) {
+                current.add(line.trim()); // 문단의 게으른 연속 줄
+            } else {
+                break;
+            }
+            previousBlank = false;
+            i++;
+        }
+
+        String tag = ordered ? "ol" : "ul";
+        out.append('<').append(tag);
+        if (ordered) {
+            int number = parseStart(first.group(2));
+            if (number != 1) {
+                out.append(" start=\"").append(number).append('"');
+            }
+        }
+        out.append(">\n");
+        for (List<String> item : items) {
+            // 항목 끝의 빈 줄 제거
+            int size = item.size();
+            while (size > 0 && item.get(size - 1).isEmpty()) {
+                size--;
+            }
+            String[] itemLines = item.subList(0, size).toArray(new String[size]);
+            out.append("<li>");
+            renderBlocks(itemLines, 0, itemLines.length, tight, out);
+            trimTrailingNewline(out);
+            out.append("</li>\n");
+        }
+        out.append("</").append(tag).append(">\n");
+
+        // 목록 뒤에 남은 빈 줄은 호출한 쪽이 건너뜀
+        return i;
+    }
+
+    private boolean sameListType(Matcher m, boolean ordered, char delimiter) {
+        String marker = m.group(2);
+        boolean isOrdered = Character.isDigit(marker.charAt(0));
+        return isOrdered == ordered && marker.charAt(marker.length() - 1) == delimiter;
+    }
+
+    private int parseStart(String marker) {
+        try {
+            return Integer.parseInt(marker.substring(0, marker.length() - 1));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private int renderTable(String[] lines, int start, int to, StringBuilder out) {
+        List<String> header = splitRow(lines[start]);
+        List<String> delimiters = splitRow(lines[start + 1]);
+        String[] aligns = new String[header.size()];
+        for (int c = 0; c < aligns.length && c < delimiters.size(); c++) {
+            String d = delimiters.get(c);
+            boolean left = d.startsWith(":");
+            boolean right = d.endsWith(":");
+            aligns[c] = left && right ? "center" : right ? "right" : left ? "left" : null;
+        }
+
+        out.append("<table>\n<thead>\n");
+        appendRow(header, aligns, "th", out);
+        out.append("</thead>\n");
+
+        int i = start + 2;
+        boolean hasBody = false;
+        while (i < to && !isBlank(lines[i]) && lines[i].indexOf('|') >= 0) {
+            if (!hasBody) {
+                out.append("<tbody>");
+                hasBody = true;
+            }
+            appendRow(splitRow(lines[i]), aligns, "td", out);
+            i++;
+        }
+        if (hasBody) {
+            out.append("</tbody>");
+        }
+        out.append("</table>\n");
+        return i;
+    }
+
+    private void appendRow(List<String> cells, String[] aligns, String tag, StringBuilder out) {
+        out.append("<tr>\n");
+        for (int c = 0; c < aligns.length; c++) {
+            out.append('<').append(tag);
+            if (aligns[c] != null) {
+                out.append(" align=\"").append(aligns[c]).append('"');
+            }
+            out.append('>');
+            if (c < cells.size()) {
+                renderInline(cells.get(c), out);
+            }
+            out.append("</").append(tag).append(">\n");
+        }
+        out.append("</tr>\n");
+    }
+
+    /**
+     * 표의 한 줄을 셀로 분리 (양끝 파이프와 \| 이스케이프 처리)
+     */
+    private List<String> splitRow(String line) {
+        String row = line.trim();
+        if (row.startsWith("|")) {
+            row = row.substring(1);
+        }
+        if (row.endsWith("|") && !row.endsWith("\\|")) {
+            row = row.substring(0, row.length() - 1);
+        }
+        List<String> cells = new ArrayList<String>();
+        StringBuilder cell = new StringBuilder();
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (c == '\\' && i + 1 < row.length() && row.charAt(i + 1) == '|') {
+                cell.append('|');
+                i++;
+            } else if (c == '|') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    private int renderParagraph(String[] lines, int start, int to, boolean tight, StringBuilder out) {
+        StringBuilder text = new StringBuilder();
+        int i = start;
+        while (i < to && !isBlank(lines[i]) && (i == start || !startsBlock(lines[i]))) {
+            if (i > start) {
+                text.append('\n');
+            }
+            text.append(i == start ? lines[i].trim() : lines[i].replaceAll("^\\s+", ""));
+            i++;
+        }
+        if (!tight) {
+            out.append("<p>");
+        }
+        renderInline(text.toString(), out);
+        out.append(tight ? "\n" : "</p>\n");
+        return i;
+    }
+
+    /**
+     * 문단을 끊고 새 블록을 시작하는 줄인지
+     */
+    private boolean startsBlock(String line) {
+        if (FENCE.matcher(line).matches() || HEADING.matcher(line).matches() || HR.matcher(line).matches()) {
+            return true;
+        }
+        if (line.trim().startsWith(">")) {
+            return true;
+        }
+        Matcher m = LIST_ITEM.matcher(line);
+        // 순서 목록은 1로 시작할 때만 문단을 끊음 (CommonMark 규칙)
+        return m.matches() && !m.group(4).isEmpty()
+                && (!Character.isDigit(m.group(2).charAt(0)) || m.group(2).startsWith("1") && m.group(2).length() == 2);
+    }
+
+    // ------------------------------------------------------------------
+    // 인라인 요소
+    // ------------------------------------------------------------------
+
+    private void renderInline(String text, StringBuilder out) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 < length && isPunctuation(text.charAt(i + 1))) {
+                        escapeHtml(text.charAt(i + 1), out);
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                case '`': {
+                    int run = runLength(text, i, '`');
+                    int close = findRun(text, i + run, '`', run);
+                    if (close >= 0) {
+                        String code = text.substring(i + run, close).replace('\n', ' ');
+                        if (code.length() >= 2 && code.startsWith(" ") && code.endsWith(" ") && !code.trim().isEmpty()) {
+                            code = code.substring(1, code.length() - 1);
+                        }
+                        out.append("<code>");
+                        escapeHtml(code, out);
+                        out.append("</code>");
+                        i = close + run;
+                        continue;
+                    }
+                    out.append(text, i, i + run);
+                    i += run;
+                    continue;
+                }
+                case '*':
+                case '_':
+                case '~': {
+                    int next = renderEmphasis(text, i, c, out);
+                    if (next > i) {
+                        i = next;
+                        continue;
+                    }
+                    break;
+                }
+                case '!':
+                    if (i + 1 < length && text.charAt(i + 1) == '[') {
+                        int next = renderLink(text, i + 1, true, out);
+                        if (next > 0) {
+                            i = next;
+                            continue;
+                        }
+                    }
+                    break;
+                case '[': {
+                    int next = renderLink(text, i, false, out);
+                    if (next > 0) {
+                        i = next;
+                        continue;
+                    }
+                    break;
+                }
+                case '<': {
+                    int close = text.indexOf('>', i);
+                    if (close > 0) {
+                        String url = text.substring(i + 1, close);
+                        if (isUrl(url) && url.indexOf(' ') < 0) {
+                            appendLink(url, null, escapeHtml(url), out);
+                            i = close + 1;
+                            continue;
+                        }
+                    }
+                    break;
+                }
+                case 'h':
+                case 'w':
+                    if ((i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) && startsUrl(text, i)) {
+                        int end = urlEnd(text, i);
+                        String url = text.substring(i, end);
+                        String href = url.startsWith("www.") ? "http://" + url : url;
+                        appendLink(href, null, escapeHtml(url), out);
+                        i = end;
+                        continue;
+                    }
+                    break;
+                case '\n': {
+                    // 줄 끝 공백 두 개 이상은 강제 줄바꿈
+                    int spaces = 0;
+                    while (spaces < out.length() && out.charAt(out.length() - 1 - spaces) == ' ') {
+                        spaces++;
+                    }
+                    if (spaces >= 2) {
+                        out.setLength(out.length() - spaces);
+                        out.append("<br>");
+                    }
+                    out.append('\n');
+                    i++;
+                    continue;
+                }
+                default:
+                    break;
+            }
+            escapeHtml(c, out);
+            i++;
+        }
+    }
+
+    /**
+     * **굵게**, *기울임*, ~~취소선~~ 처리
+     * @return 처리했으면 다음 위치, 아니면 start
+     */
+    private int renderEmphasis(String text, int start, char marker, StringBuilder out) {
+        int run = runLength(text, start, marker);
+        if (marker == '~' && run != 2) {
+            return start;
+        }
+        int width = marker == '~' ? 2 : Math.min(run, 2);
+        int contentStart = start + width;
+        if (contentStart >= text.length() || Character.isWhitespace(text.charAt(contentStart))) {
+            return start;
+        }
+        // 단어 중간의 _는 강조가 아님 (snake_case)
+        if (marker == '_' && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return start;
+        }
+
+        int close = findClosingDelimiter(text, contentStart, marker, width);
+        if (close < 0) {
+            if (width == 2 && marker != '~') {
+                // ** 짝이 없으면 * 하나로 다시 시도
+                width = 1;
+                contentStart = start + 1;
+                close = findClosingDelimiter(text, contentStart, marker, 1);
+            }
+            if (close < 0) {
+                return start;
+            }
+        }
+
+        String tag = marker == '~' ? "del" : width == 2 ? "strong" : "em";
+        out.append('<').append(tag).append('>');
+        renderInline(text.substring(contentStart, close), out);
+        out.append("</").append(tag).append('>');
+        return close + width;
+    }
+
+    private int findClosingDelimiter(String text, int from, char marker, int width) {
+        int i = from;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '`') {
+                int run = runLength(text, i, '`');
+                int close = findRun(text, i + run, '`', run);
+                i = close >= 0 ? close + run : i + run;
+                continue;
+            }
+            if (c == marker) {
+                int run = runLength(text, i, marker);
+                boolean closes = i > from && !Character.isWhitespace(text.charAt(i - 1))
+                        && (marker != '_' || i + run >= text.length() || !Character.isLetterOrDigit(text.charAt(i + run)));
+                // *기울임* 안의 **굵게**는 닫는 기호로 보지 않음, ***는 안쪽부터 닫힘
+                if (closes && run >= width && !(width == 1 && run == 2)) {
+                    return i + run - width;
+                }
+                i += run;
+                continue;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * [텍스트](주소 "제목") 링크, ![대체텍스트](주소) 이미지
+     * @return 처리했으면 다음 위치, 아니면 -1
+     */
+    private int renderLink(String text, int open, boolean image, StringBuilder out) {
+        int depth = 0;
+        int close = -1;
+        for (int i = open; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                close = i;
+                break;
+            }
+        }
+        if (close < 0 || close + 1 >= text.length() || text.charAt(close + 1) != '(') {
+            return -1;
+        }
+        int end = text.indexOf(')', close + 2);
+        if (end < 0) {
+            return -1;
+        }
+
+        String target = text.substring(close + 2, end).trim();
+        String href = target;
+        String title = null;
+        int space = target.indexOf(' ');
+        if (space > 0) {
+            String rest = target.substring(space + 1).trim();
+            if (rest.length() >= 2 && (rest.charAt(0) == '"' || rest.charAt(0) == '\'')
+                    && rest.charAt(rest.length() - 1) == rest.charAt(0)) {
+                href = target.substring(0, space);
+                title = rest.substring(1, rest.length() - 1);
+            }
+        }
+        if (href.startsWith("<") && href.endsWith(">")) {
+            href = href.substring(1, href.length() - 1);
+        }
+
+        String label = text.substring(open + 1, close);
+        if (image) {
+            out.append("<img src=\"");
+            escapeHtml(href, out);
+            out.append("\" alt=\"");
+            escapeHtml(label, out);
+            out.append('"');
+            if (title != null) {
+                out.append(" title=\"");
+                escapeHtml(title, out);
+                out.append('"');
+            }
+            out.append('>');
+        } else {
+            StringBuilder inner = new StringBuilder();
+            renderInline(label, inner);
+            appendLink(href, title, inner.toString(), out);
+        }
+        return end + 1;
+    }
+
+    /**
+     * setupMarkedRenderer의 renderer.link와 같은 링크 마크업 (새 창, 제목이 없으면 텍스트)
+     */
+    private void appendLink(String href, String title, String innerHtml, StringBuilder out) {
+        out.append("<a href=\"");
+        escapeHtml(href, out);
+        out.append("\" title=\"");
+        if (title != null) {
+            escapeHtml(title, out);
+        } else {
+            out.append(innerHtml.replace("\"", "&quot;"));
+        }
+        out.append("\" target=\"_blank\">").append(innerHtml).append("</a>");
+    }
+
+    private boolean startsUrl(String text, int i) {
+        return text.startsWith("http://", i) || text.startsWith("https://", i) || text.startsWith("www.", i);
+    }
+
+    private boolean isUrl(String text) {
+        return text.startsWith("http://") || text.startsWith("https://") || text.startsWith("mailto:");
+    }
+
+    /**
+     * 본문 속 URL의 끝 (공백/꺾쇠 전까지, 끝의 문장부호와 짝 없는 괄호 제외)
+     */
+    private int urlEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != '<') {
+            end++;
+        }
+        while (end > start) {
+            char last = text.charAt(end - 1);
+            if (".,:;!?\"'*_~".indexOf(last) >= 0) {
+                end--;
+            } else if (last == ')' && count(text, start, end, '(') < count(text, start, end, ')')) {
+                end--;
+            } else {
+                break;
+            }
+        }
+        return end;
+    }
+
+    // ------------------------------------------------------------------
+    // 유틸리티
+    // ------------------------------------------------------------------
+
+    private static int count(String text, int from, int to, char c) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int runLength(String text, int start, char c) {
+        int i = start;
+        while (i < text.length() && text.charAt(i) == c) {
+            i++;
+        }
+        return i - start;
+    }
+
+    /**
+     * from 이후에서 길이가 정확히 run인 c 연속 구간의 시작 위치
+     */
+    private static int findRun(String text, int from, char c, int run) {
+        int i = from;
+        while (i < text.length()) {
+            if (text.charAt(i) == c) {
+                int length = runLength(text, i, c);
+                if (length == run) {
+                    return i;
+                }
+                i += length;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isRun(String text, char c) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(String line) {
+        return line.trim().isEmpty();
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c < 128 && "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".indexOf(c) >= 0;
+    }
+
+    /**
+     * 줄 앞 공백 폭 (탭은 4칸)
+     */
+    private static int leadingColumns(String line) {
+        int columns = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ') {
+                columns++;
+            } else if (c == '\t') {
+                columns += 4 - columns % 4;
+            } else {
+                break;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 줄 앞에서 최대 columns 폭만큼 공백 제거
+     */
+    private static String stripIndent(String line, int columns) {
+        int removed = 0;
+        int i = 0;
+        while (i < line.length() && removed < columns) {
+            char c = line.charAt(i);
+            if (c == ' ') {
+                removed++;
+            } else if (c == '\t') {
+                removed += 4 - removed % 4;
+            } else {
+                break;
+            }
+            i++;
+        }
+        return line.substring(i);
+    }
+
+    private static void trimTrailingNewline(StringBuilder out) {
+        if (out.length() > 0 && out.charAt(out.length() - 1) == '\n') {
+            out.setLength(out.length() - 1);
+        }
+    }
+
+    private static String escapeHtml(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        escapeHtml(text, out);
+        return out.toString();
+    }
+
+    private static void escapeHtml(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            escapeHtml(text.charAt(i), out);
+        }
+    }
+
+    private static void escapeHtml(char c, StringBuilder out) {
+        switch (c) {
+            case '&': out.append("&amp;"); break;
+            case '<': out.append("&lt;"); break;
+            case '>': out.append("&gt;"); break;
+            case '"': out.append("&quot;"); break;
+            default: out.append(c);
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.kiassist.core;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.BufferedReader;
 import java.util.List;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
+
 /**
  * 마크다운을 HTML로 변환하는 클래스
  * marked.js 사용 - JDK 7 호환
@@ -21,6 +21,12 @@ public class MarkdownToHtmlConverter {
         ".message-typing { background-color: #e9ecef; color: #6c757d; margin-left: 0; margin-right: auto; font-style: italic; }" +
         ".timestamp { font-size: 0.8em; opacity: 0.7; margin-top: 5px; }" +
         ".model-tag { font-size: 0.7em; background-color: #6c757d; color: white; padding: 2px 6px; border-radius: 3px; margin-bottom: 5px; display: inline-block; }" +
+        // 비교 모드: 모델별 답변을 한 메시지 안의 열로 표시
+        ".message-compare { max-width: 100%; background-color: white; color: #333; border: 1px solid #ddd; }" +
+        ".compare-table { width: 100%; table-layout: fixed; border-collapse: collapse; }" +
+        ".compare-table td { vertical-align: top; padding: 0 8px; border-left: 1px solid #eee; }" +
+        ".compare-table td.compare-first { border-left: none; }" +
+        ".compare-stats { font-size: 0.75em; color: #6c757d; margin-top: 6px; }" +
         
         // 마크다운 스타일 (marked.js 출력용)
         "h1, h2, h3 { color: #333; margin-top: 20px; margin-bottom: 10px; }" +
@@ -55,21 +61,61 @@ public class MarkdownToHtmlConverter {
         // 인용구
         "blockquote { border-left: 4px solid #ddd; margin: 10px 0; padding-left: 10px; color: #666; font-style: italic; }";
 
+    // 미리 만들어 둔 초기 페이지 (내용이 항상 같으므로 모든 뷰가 공유)
+    private static volatile String chatPageShell;
+    
+    // Java 마크다운 렌더러 (렌더링 결과 캐시는 모든 뷰가 공유)
+    private static final MarkdownRenderer MARKDOWN_RENDERER = new MarkdownRenderer();
+    private volatile boolean serverSideMarkdown = false;
+
     /**
      * 초기 채팅 페이지 HTML 생성 (marked.js 포함)
      */
     boolean isDebug = false;
     public String createChatPageHTML() {
-        StringBuilder html = new StringBuilder();
+        if (isDebug) {
+            return buildChatPageHTML();
+        }
+        String shell = chatPageShell;
+        if (shell == null) {
+            shell = buildChatPageHTML();
+            chatPageShell = shell;
+        }
+        return shell;
+    }
+
+    /**
+     * 파일로 저장해 URL로 여는 채팅 페이지 HTML 생성
+     * marked.js/highlight.js는 인라인하지 않고 같은 디렉터리의 파일을 참조하므로
+     * 브라우저가 컴파일된 스크립트를 뷰와 재시작 사이에 캐시할 수 있다.
+     */
+    public String createLinkedChatPageHTML() {
+        return buildChatPageHTML(false);
+    }
+
+    private String buildChatPageHTML() {
+        return buildChatPageHTML(true);
+    }
+
+    private String buildChatPageHTML(boolean inlineAssets) {
+        StringBuilder html = new StringBuilder(inlineAssets ? 256 * 1024 : 32 * 1024);
         html.append("<!DOCTYPE html>");
+        if (!inlineAssets) {
+            // IE 로컬 파일 보안 영역에서 스크립트가 차단되지 않도록 (Mark of the Web)
+            html.append("\r\n<!-- saved from url=(0014)about:internet -->\r\n");
+        }
         html.append("<html><head>");
         html.append("<meta charset='UTF-8'>");
         html.append("<style>").append(CHAT_CSS).append("</style>");
         
         // highlight.js CSS 테마 로드
-        String highlightCss = loadHighlightCSS();
-        if (!highlightCss.isEmpty()) {
-            html.append("<style>").append(highlightCss).append("</style>");
+        if (!inlineAssets) {
+            html.append("<link rel='stylesheet' href='").append(assetFileName(WebAssetCache.HIGHLIGHT_CSS)).append("'>");
+        } else {
+            String highlightCss = loadHighlightCSS();
+            if (!highlightCss.isEmpty()) {
+                html.append("<style>").append(highlightCss).append("</style>");
+            }
         }
         
         html.append("<script>");
@@ -99,16 +145,21 @@ public class MarkdownToHtmlConverter {
         html.append("}");
         html.append("</script>");
         
-        // marked.js 로드
-        String markedJs = loadMarkedJS();
-        if (!markedJs.isEmpty()) {
-            html.append("<script>").append(markedJs).append("</script>");
-        }
-        
-        // highlight.js 로드
-        String highlightJs = loadHighlightJS();
-        if (!highlightJs.isEmpty()) {
-            html.append("<script>").append(highlightJs).append("</script>");
+        if (!inlineAssets) {
+            html.append("<script src='").append(assetFileName(WebAssetCache.MARKED_JS)).append("'></script>");
+            html.append("<script src='").append(assetFileName(WebAssetCache.HIGHLIGHT_JS)).append("'></script>");
+        } else {
+            // marked.js 로드
+            String markedJs = loadMarkedJS();
+            if (!markedJs.isEmpty()) {
+                html.append("<script>").append(markedJs).append("</script>");
+            }
+            
+            // highlight.js 로드
+            String highlightJs = loadHighlightJS();
+            if (!highlightJs.isEmpty()) {
+                html.append("<script>").append(highlightJs).append("</script>");
+            }
         }
         
         html.append("</head><body>");
@@ -182,7 +233,7 @@ public class MarkdownToHtmlConverter {
         html.append("function checkHighlightJS() {");
         html.append("  if (typeof hljs !== 'undefined') {");
         html.append("    debugLog('highlight.js 로드 성공!');");
-        html.append("    hljs.initHighlighting();");
+        html.append("    highlightWithin(document.getElementById('chatContainer'));");
         html.append("    return true;");
         html.append("  } else {");
         html.append("    debugLog('highlight.js 로드 실패!');");
@@ -190,10 +241,368 @@ public class MarkdownToHtmlConverter {
         html.append("  }");
         html.append("}");
         
-        html.append("function addMessage(content, type, model, timestamp, isMarkdown) {");
+        appendHighlightScript(html);
+        
+        // 타이핑 인디케이터
+        html.append("function getTypingIndicator() {");
+        html.append("  var typings = document.getElementById('chatContainer').getElementsByClassName('message-typing');");
+        html.append("  return typings.length > 0 ? typings[typings.length - 1] : null;");
+        html.append("}");
+        html.append("function removeTypingIndicator() {");
+        html.append("  var typing = getTypingIndicator();");
+        html.append("  if (typing) typing.parentNode.removeChild(typing);");
+        html.append("}");
+        
+        // 가상화된 뷰포트: 화면 주변의 메시지만 DOM에 두고, 나머지는 측정한 높이만큼의 여백으로 대체
+        // 여백 영역으로 스크롤하면 Java(kiLoadMessages)에서 일련번호로 메시지를 다시 받아 그린다.
+        html.append("var MAX_LIVE_MESSAGES = 60;");
+        html.append("var LOAD_BATCH = 20;");
+        html.append("var viewport = null;");
+        html.append("var viewportTimer = null;");
+        html.append("function getViewport() {");
+        html.append("  if (viewport) return viewport;");
         html.append("  var container = document.getElementById('chatContainer');");
+        html.append("  var top = document.createElement('div');");
+        html.append("  var bottom = document.createElement('div');");
+        html.append("  container.insertBefore(top, container.firstChild);");
+        html.append("  container.appendChild(bottom);");
+        html.append("  var live = 0;");
+        html.append("  for (var el = top.nextSibling; el && el !== bottom; el = el.nextSibling) {");
+        html.append("    if (getSeq(el) >= 0) live++;");
+        html.append("  }");
+        html.append("  viewport = { container: container, top: top, bottom: bottom, above: [], below: [], aboveHeight: 0, belowHeight: 0, live: live };");
+        html.append("  return viewport;");
+        html.append("}");
+        html.append("function clearMessages(initialHtml) {");
+        html.append("  document.getElementById('chatContainer').innerHTML = initialHtml || '';");
+        html.append("  viewport = null;");
+        html.append("  getViewport();");
+        html.append("}");
+        html.append("function getSeq(el) {");
+        html.append("  if (el.nodeType !== 1) return -1;");
+        html.append("  var seq = el.getAttribute('data-seq');");
+        html.append("  return seq ? parseInt(seq, 10) : -1;");
+        html.append("}");
+        // 스트리밍/타이핑 중인 메시지는 아직 번호가 없으므로 잘라내지 않음
+        html.append("function isPinned(el) {");
+        html.append("  return el.nodeType === 1 && el.getAttribute('data-live') === 'true';");
+        html.append("}");
+        html.append("function outerHeight(el) {");
+        html.append("  var style = window.getComputedStyle ? window.getComputedStyle(el, null) : el.currentStyle;");
+        html.append("  return el.offsetHeight + (parseInt(style.marginTop, 10) || 0) + (parseInt(style.marginBottom, 10) || 0);");
+        html.append("}");
+        html.append("function setSpacers(v) {");
+        html.append("  v.top.style.height = v.aboveHeight + 'px';");
+        html.append("  v.bottom.style.height = v.belowHeight + 'px';");
+        html.append("}");
+        html.append("function detachElement(v, el, toAbove) {");
+        html.append("  var seq = getSeq(el);");
+        html.append("  if (seq >= 0) {");
+        html.append("    var item = { seq: seq, h: outerHeight(el) };");
+        html.append("    if (toAbove) { v.above.push(item); v.aboveHeight += item.h; }");
+        html.append("    else { v.below.unshift(item); v.belowHeight += item.h; }");
+        html.append("    v.live--;");
+        html.append("  }");
+        html.append("  v.container.removeChild(el);");
+        html.append("}");
+        html.append("function appendMessageElement(el) {");
+        html.append("  var v = getViewport();");
+        html.append("  if (v.below.length > 0) collapseToEnd(v);");
+        html.append("  v.container.insertBefore(el, v.bottom);");
+        html.append("  if (getSeq(el) >= 0) v.live++;");
+        html.append("  trimAbove(v, MAX_LIVE_MESSAGES);");
+        html.append("}");
+        html.append("function trimAbove(v, limit) {");
+        html.append("  while (v.live > limit) {");
+        html.append("    var el = v.top.nextSibling;");
+        html.append("    if (!el || el === v.bottom || isPinned(el)) break;");
+        html.append("    detachElement(v, el, true);");
+        html.append("  }");
+        html.append("  setSpacers(v);");
+        html.append("}");
+        html.append("function trimBelow(v, limit) {");
+        html.append("  while (v.live > limit) {");
+        html.append("    var el = v.bottom.previousSibling;");
+        html.append("    if (!el || el === v.top || getSeq(el) < 0) break;");
+        html.append("    detachElement(v, el, false);");
+        html.append("  }");
+        html.append("  setSpacers(v);");
+        html.append("}");
+        // 아래쪽이 잘려 있는 상태에서 새 메시지가 오면 현재 메시지를 모두 위쪽 여백으로 접고 끝에 붙임
+        html.append("function collapseToEnd(v) {");
+        html.append("  var el = v.top.nextSibling;");
+        html.append("  while (el && el !== v.bottom) {");
+        html.append("    var next = el.nextSibling;");
+        html.append("    if (!isPinned(el)) detachElement(v, el, true);");
+        html.append("    el = next;");
+        html.append("  }");
+        html.append("  v.above = v.above.concat(v.below);");
+        html.append("  v.aboveHeight += v.belowHeight;");
+        html.append("  v.below = [];");
+        html.append("  v.belowHeight = 0;");
+        html.append("  setSpacers(v);");
+        html.append("}");
+        html.append("function fetchMessages(from, to) {");
+        html.append("  if (typeof window.kiLoadMessages === 'undefined') return [];");
+        html.append("  try {");
+        html.append("    var json = window.kiLoadMessages(from, to);");
+        html.append("    return json ? JSON.parse(json) : [];");
+        html.append("  } catch (e) {");
+        html.append("    debugLog('kiLoadMessages 오류: ' + e.message);");
+        html.append("    return [];");
+        html.append("  }");
+        html.append("}");
+        html.append("function materialize(v, batch, before) {");
+        html.append("  var items = fetchMessages(batch[0].seq, batch[batch.length - 1].seq + 1);");
+        html.append("  var fragment = document.createDocumentFragment();");
+        html.append("  var created = [];");
+        html.append("  for (var i = 0; i < items.length; i++) {");
+        html.append("    var m = items[i];");
+        html.append("    var el = createMessageElement(m.content, m.type, m.model, m.timestamp, m.markdown, m.seq, m.html);");
+        html.append("    fragment.appendChild(el);");
+        html.append("    created.push(el);");
+        html.append("  }");
+        html.append("  v.live += created.length;");
+        html.append("  v.container.insertBefore(fragment, before);");
+        html.append("  for (var j = 0; j < created.length; j++) highlightWithin(created[j]);");
+        html.append("}");
+        html.append("function loadAbove(v) {");
+        html.append("  var batch = v.above.splice(Math.max(0, v.above.length - LOAD_BATCH), LOAD_BATCH);");
+        html.append("  for (var i = 0; i < batch.length; i++) v.aboveHeight -= batch[i].h;");
+        html.append("  var anchor = v.top.nextSibling;");
+        html.append("  var anchorTop = anchor.getBoundingClientRect().top;");
+        html.append("  setSpacers(v);");
+        html.append("  materialize(v, batch, anchor);");
+        // 위에 끼워 넣은 실제 높이와 여백 높이의 차이만큼 스크롤을 보정해 화면이 튀지 않게 함
+        html.append("  window.scrollBy(0, anchor.getBoundingClientRect().top - anchorTop);");
+        html.append("  trimBelow(v, MAX_LIVE_MESSAGES + LOAD_BATCH);");
+        html.append("}");
+        html.append("function loadBelow(v) {");
+        html.append("  var batch = v.below.splice(0, LOAD_BATCH);");
+        html.append("  for (var i = 0; i < batch.length; i++) v.belowHeight -= batch[i].h;");
+        html.append("  setSpacers(v);");
+        html.append("  materialize(v, batch, v.bottom);");
+        html.append("  trimAbove(v, MAX_LIVE_MESSAGES + LOAD_BATCH);");
+        html.append("}");
+        // 여백 한가운데로 바로 스크롤한 경우: 현재 메시지를 반대쪽 여백으로 보내고 그 위치부터 다시 그림
+        html.append("function jumpWithinAbove(v, offset) {");
+        html.append("  var el = v.bottom.previousSibling;");
+        html.append("  while (el && el !== v.top) {");
+        html.append("    var prev = el.previousSibling;");
+        html.append("    detachElement(v, el, false);");
+        html.append("    el = prev;");
+        html.append("  }");
+        html.append("  var k = 0, acc = 0;");
+        html.append("  while (k < v.above.length && acc + v.above[k].h <= offset) acc += v.above[k++].h;");
+        html.append("  var moved = v.above.splice(k, v.above.length - k);");
+        html.append("  v.below = moved.concat(v.below);");
+        html.append("  v.belowHeight += v.aboveHeight - acc;");
+        html.append("  v.aboveHeight = acc;");
+        html.append("  loadBelow(v);");
+        html.append("}");
+        html.append("function jumpWithinBelow(v, offset) {");
+        html.append("  var el = v.top.nextSibling;");
+        html.append("  while (el && el !== v.bottom) {");
+        html.append("    var next = el.nextSibling;");
+        html.append("    detachElement(v, el, true);");
+        html.append("    el = next;");
+        html.append("  }");
+        html.append("  var k = 0, acc = 0;");
+        html.append("  while (k < v.below.length && acc + v.below[k].h <= offset) acc += v.below[k++].h;");
+        html.append("  var moved = v.below.splice(0, k);");
+        html.append("  v.above = v.above.concat(moved);");
+        html.append("  v.aboveHeight += acc;");
+        html.append("  v.belowHeight -= acc;");
+        html.append("  loadBelow(v);");
+        html.append("}");
+        html.append("function hasPinned(v) {");
+        html.append("  for (var el = v.top.nextSibling; el && el !== v.bottom; el = el.nextSibling) {");
+        html.append("    if (isPinned(el)) return true;");
+        html.append("  }");
+        html.append("  return false;");
+        html.append("}");
+        html.append("function updateViewport() {");
+        html.append("  var v = getViewport();");
+        html.append("  var scrollTop = window.pageYOffset || document.documentElement.scrollTop;");
+        html.append("  var viewHeight = window.innerHeight || document.documentElement.clientHeight;");
+        html.append("  var aboveEnd = v.top.offsetTop + v.aboveHeight;");
+        html.append("  var belowStart = v.bottom.offsetTop;");
+        html.append("  if (v.above.length > 0 && scrollTop + viewHeight < aboveEnd && !hasPinned(v)) {");
+        html.append("    jumpWithinAbove(v, scrollTop - v.top.offsetTop);");
+        html.append("  } else if (v.above.length > 0 && scrollTop < aboveEnd + viewHeight) {");
+        html.append("    loadAbove(v);");
+        html.append("  } else if (v.below.length > 0 && scrollTop > belowStart && !hasPinned(v)) {");
+        html.append("    jumpWithinBelow(v, scrollTop - belowStart);");
+        html.append("  } else if (v.below.length > 0 && scrollTop + viewHeight > belowStart - viewHeight) {");
+        html.append("    loadBelow(v);");
+        html.append("  } else {");
+        html.append("    return;");
+        html.append("  }");
+        // 한 번에 화면을 채우지 못했으면 다음 틱에 이어서 처리
+        html.append("  scheduleViewportUpdate();");
+        html.append("}");
+        html.append("function scheduleViewportUpdate() {");
+        html.append("  if (viewportTimer !== null) return;");
+        html.append("  viewportTimer = setTimeout(function() { viewportTimer = null; updateViewport(); }, 100);");
+        html.append("}");
+        html.append("window.onscroll = scheduleViewportUpdate;");
+        
+        // 스트리밍 응답 점진 렌더링: 완성된 블록은 한 번만 파싱해 붙이고 열린 마지막 블록만 다시 그림
+        html.append("var STREAM_RENDER_INTERVAL = 50;");
+        html.append("var streams = {};");
+        html.append("function beginMessage(id, type, model, timestamp) {");
+        html.append("  removeTypingIndicator();");
         html.append("  var messageDiv = document.createElement('div');");
         html.append("  messageDiv.className = 'message message-' + type;");
+        html.append("  messageDiv.setAttribute('data-live', 'true');");
+        html.append("  if (model) {");
+        html.append("    var tag = document.createElement('div');");
+        html.append("    tag.className = 'model-tag';");
+        html.append("    tag.textContent = model;");
+        html.append("    messageDiv.appendChild(tag);");
+        html.append("  }");
+        html.append("  var committed = document.createElement('div');");
+        html.append("  var tail = document.createElement('div');");
+        html.append("  var time = document.createElement('div');");
+        html.append("  time.className = 'timestamp';");
+        html.append("  time.textContent = timestamp;");
+        html.append("  messageDiv.appendChild(committed);");
+        html.append("  messageDiv.appendChild(tail);");
+        html.append("  messageDiv.appendChild(time);");
+        html.append("  appendMessageElement(messageDiv);");
+        html.append("  streams[id] = { div: messageDiv, committed: committed, tail: tail, buffer: '', done: 0, timer: null };");
+        html.append("  window.scrollTo(0, document.body.scrollHeight);");
+        html.append("}");
+        // 비교 모드: 열마다 스트림(groupId-번호)을 만들어 appendToMessage/finishMessage를 그대로 사용
+        html.append("function beginCompare(groupId, labels, timestamp) {");
+        html.append("  removeTypingIndicator();");
+        html.append("  var group = document.createElement('div');");
+        html.append("  group.id = groupId;");
+        html.append("  group.className = 'message message-compare';");
+        html.append("  group.setAttribute('data-live', 'true');");
+        html.append("  var table = document.createElement('table');");
+        html.append("  table.className = 'compare-table';");
+        html.append("  var row = table.insertRow(-1);");
+        html.append("  for (var i = 0; i < labels.length; i++) {");
+        html.append("    var cell = row.insertCell(-1);");
+        html.append("    cell.style.width = Math.floor(100 / labels.length) + '%';");
+        html.append("    if (i === 0) cell.className = 'compare-first';");
+        html.append("    var tag = document.createElement('div');");
+        html.append("    tag.className = 'model-tag';");
+        html.append("    tag.textContent = labels[i];");
+        html.append("    var committed = document.createElement('div');");
+        html.append("    var tail = document.createElement('div');");
+        html.append("    var stats = document.createElement('div');");
+        html.append("    stats.className = 'compare-stats';");
+        html.append("    stats.id = groupId + '-' + i + '-stats';");
+        html.append("    stats.textContent = '응답 대기 중...';");
+        html.append("    cell.appendChild(tag);");
+        html.append("    cell.appendChild(committed);");
+        html.append("    cell.appendChild(tail);");
+        html.append("    cell.appendChild(stats);");
+        html.append("    streams[groupId + '-' + i] = { div: cell, committed: committed, tail: tail, buffer: '', done: 0, timer: null };");
+        html.append("  }");
+        html.append("  var time = document.createElement('div');");
+        html.append("  time.className = 'timestamp';");
+        html.append("  time.textContent = timestamp;");
+        html.append("  group.appendChild(table);");
+        html.append("  group.appendChild(time);");
+        html.append("  appendMessageElement(group);");
+        html.append("  window.scrollTo(0, document.body.scrollHeight);");
+        html.append("}");
+        html.append("function setCompareStats(columnId, text) {");
+        html.append("  var stats = document.getElementById(columnId + '-stats');");
+        html.append("  if (stats) stats.textContent = text;");
+        html.append("}");
+        // 대화 기록에 저장한 비교 결과의 번호를 붙여, 화면 밖으로 밀려났다가 다시 그릴 때는 저장된 메시지로 그림
+        html.append("function finishCompare(groupId, seq) {");
+        html.append("  var group = document.getElementById(groupId);");
+        html.append("  if (!group) return;");
+        html.append("  group.removeAttribute('data-live');");
+        html.append("  if (typeof seq === 'number' && seq >= 0) {");
+        html.append("    group.setAttribute('data-seq', seq);");
+        html.append("    var v = getViewport();");
+        html.append("    v.live++;");
+        html.append("    trimAbove(v, MAX_LIVE_MESSAGES);");
+        html.append("  }");
+        html.append("}");
+        html.append("function appendToMessage(id, delta) {");
+        html.append("  var s = streams[id];");
+        html.append("  if (!s) return;");
+        html.append("  s.buffer += delta;");
+        html.append("  if (s.timer === null) {");
+        html.append("    s.timer = setTimeout(function() { s.timer = null; renderStream(s); }, STREAM_RENDER_INTERVAL);");
+        html.append("  }");
+        html.append("}");
+        html.append("function finishMessage(id, seq, renderedHtml) {");
+        html.append("  var s = streams[id];");
+        html.append("  if (!s) return;");
+        html.append("  delete streams[id];");
+        html.append("  if (s.timer !== null) { clearTimeout(s.timer); s.timer = null; }");
+        // 블록별로 나눠 그린 결과는 빈 줄로 나뉜 목록/표나 참조 링크가 다르게 보일 수 있으므로
+        // 마지막에 전체를 한 번 다시 그려 다시 불러올 때와 같은 결과로 맞춤
+        html.append("  s.committed.innerHTML = typeof renderedHtml === 'string' ? renderedHtml : renderMarkdown(s.buffer);");
+        html.append("  highlightWithin(s.committed);");
+        html.append("  s.div.removeChild(s.tail);");
+        html.append("  s.div.removeAttribute('data-live');");
+        html.append("  if (typeof seq === 'number' && seq >= 0) {");
+        html.append("    s.div.setAttribute('data-seq', seq);");
+        html.append("    var v = getViewport();");
+        html.append("    v.live++;");
+        html.append("    trimAbove(v, MAX_LIVE_MESSAGES);");
+        html.append("  }");
+        html.append("}");
+        // 코드 펜스 밖의 마지막 빈 줄 위치 (그 앞까지는 더 이상 바뀌지 않는 블록)
+        html.append("function findBlockBoundary(text) {");
+        html.append("  var boundary = 0, inFence = false, pos = 0;");
+        html.append("  while (pos < text.length) {");
+        html.append("    var end = text.indexOf('\\n', pos);");
+        html.append("    if (end < 0) break;");
+        html.append("    var line = text.substring(pos, end);");
+        html.append("    var trimmed = line.replace(/^\\s+/, '');");
+        html.append("    if (trimmed.indexOf('```') === 0 || trimmed.indexOf('~~~') === 0) {");
+        html.append("      inFence = !inFence;");
+        html.append("      if (!inFence) boundary = end + 1;");
+        html.append("    } else if (!inFence && /^\\s*$/.test(line)) {");
+        html.append("      boundary = end + 1;");
+        html.append("    }");
+        html.append("    pos = end + 1;");
+        html.append("  }");
+        html.append("  return boundary;");
+        html.append("}");
+        html.append("function renderMarkdown(text) {");
+        html.append("  if (window.marked) {");
+        html.append("    try { return marked.parse(text); } catch (e) { debugLog('marked.parse 오류: ' + e.message); }");
+        html.append("  }");
+        html.append("  return escapeText(text).replace(/\\n/g, '<br>');");
+        html.append("}");
+        html.append("function escapeText(text) {");
+        html.append("  return text.replace(/&/g, '&amp;').replace(/</g, '&lt;').replace(/>/g, '&gt;');");
+        html.append("}");
+        html.append("function renderStream(s) {");
+        html.append("  var pending = s.buffer.substring(s.done);");
+        html.append("  var boundary = findBlockBoundary(pending);");
+        html.append("  if (boundary > 0) {");
+        html.append("    var block = document.createElement('div');");
+        html.append("    block.innerHTML = renderMarkdown(pending.substring(0, boundary));");
+        html.append("    highlightWithin(block);");
+        html.append("    while (block.firstChild) s.committed.appendChild(block.firstChild);");
+        html.append("    s.done += boundary;");
+        html.append("    pending = pending.substring(boundary);");
+        html.append("  }");
+        html.append("  s.tail.innerHTML = pending.length > 0 ? renderMarkdown(pending) : '';");
+        html.append("  window.scrollTo(0, document.body.scrollHeight);");
+        html.append("}");
+        
+        // renderedHtml: Java(MarkdownRenderer)에서 미리 만든 HTML이 있으면 marked.parse 대신 사용
+        html.append("function createMessageElement(content, type, model, timestamp, isMarkdown, seq, renderedHtml) {");
+        html.append("  var messageDiv = document.createElement('div');");
+        html.append("  messageDiv.className = 'message message-' + type;");
+        html.append("  if (typeof seq === 'number' && seq >= 0) {");
+        html.append("    messageDiv.setAttribute('data-seq', seq);");
+        html.append("  } else if (type === 'typing') {");
+        html.append("    messageDiv.setAttribute('data-live', 'true');");
+        html.append("  }");
         html.append("  ");
         html.append("  var html = '';");
         html.append("  if (model && type === 'assistant') {");
@@ -202,46 +611,12 @@ public class MarkdownToHtmlConverter {
         html.append("  ");
         html.append("  if (type === 'typing') {");
         html.append("    html += '응답을 생성 중입니다...';");
+        html.append("  } else if (typeof renderedHtml === 'string') {");
+        html.append("    html += renderedHtml;");
         html.append("  } else if (isMarkdown && window.marked) {");
         html.append("    try {");
         html.append("      html += marked.parse(content);");
         html.append("      debugLog('marked.parse 성공');");
-        html.append("      ");
-        html.append("      setTimeout(function() {");
-        html.append("        debugLog('addMessage setTimeout 시작: highlight.js 적용 시도');");
-        html.append("        if (typeof hljs !== 'undefined') {");
-        html.append("          debugLog('addMessage hljs 객체 존재 확인됨');");
-        html.append("          try {");
-        html.append("            var codeBlocks = document.querySelectorAll('pre code');");
-        html.append("            debugLog('addMessage 코드 블록 갯수: ' + codeBlocks.length);");
-        html.append("            debugLog('for문 시작 전');");
-        html.append("            for (var i = 0; i < codeBlocks.length; i++) {");
-        html.append("              debugLog('for문 반복 ' + i + ' 시작');");
-        html.append("              try {");
-        html.append("                var block = codeBlocks[i];");
-        html.append("                debugLog('블록 ' + i + ' 클래스: ' + block.className);");
-        html.append("                debugLog('블록 ' + i + ' 태그명: ' + block.tagName);");
-        html.append("                debugLog('블록 ' + i + ' 부모 태그: ' + block.parentNode.tagName);");
-        html.append("                if (block.className && block.className.indexOf('language-') === 0) {");
-        html.append("                  debugLog('언어 클래스 발견, highlightBlock 적용: ' + block.className);");
-        html.append("                  hljs.highlightBlock(block);");
-        html.append("                  debugLog('블록 ' + i + ' 하이라이트 적용 완료');");
-        html.append("                } else {");
-        html.append("                  debugLog('언어 클래스 없음: ' + block.className);");
-        html.append("                }");;
-        html.append("              } catch (innerE) {");
-        html.append("                debugLog('for문 내부 에러 ' + i + ': ' + innerE.message);");
-        html.append("              }");
-        html.append("            }");
-        html.append("            debugLog('for문 완료');");
-        html.append("            debugLog('개별 블록 처리 완료, initHighlighting 생략');");
-        html.append("          } catch (e) {");
-        html.append("            debugLog('addMessage hljs.initHighlighting() 에러: ' + e.message);");
-        html.append("          }");
-        html.append("        } else {");
-        html.append("          debugLog('addMessage hljs 객체가 정의되지 않음');");
-        html.append("        }");
-        html.append("      }, 10);");
         html.append("    } catch (e) {");
         html.append("      debugLog('marked.parse 오류: ' + e.message);");
         html.append("      html += content.replace(/\\n/g, '<br>');"); // 폴백
@@ -252,7 +627,52 @@ public class MarkdownToHtmlConverter {
         html.append("  ");
         html.append("  html += '<div class=\"timestamp\">' + timestamp + '</div>';");
         html.append("  messageDiv.innerHTML = html;");
-        html.append("  container.appendChild(messageDiv);");
+        html.append("  return messageDiv;");
+        html.append("}");
+        // 여러 메시지를 한 번에 렌더링 (세션 복원용)
+        // 최근 MAX_LIVE_MESSAGES개만 하나의 fragment로 그리고 하이라이트도 한 번에 적용하며,
+        // 그 이전 메시지(firstSeq부터)는 그려진 메시지의 평균 높이로 잡은 여백으로 두었다가 스크롤 시 불러옴
+        html.append("function addMessages(items, firstSeq) {");
+        html.append("  var v = getViewport();");
+        html.append("  if (v.below.length > 0) collapseToEnd(v);");
+        html.append("  removeTypingIndicator();");
+        html.append("  var start = Math.max(0, items.length - MAX_LIVE_MESSAGES);");
+        html.append("  var holder = document.createElement('div');");
+        html.append("  for (var i = start; i < items.length; i++) {");
+        html.append("    var m = items[i];");
+        html.append("    holder.appendChild(createMessageElement(m.content, m.type, m.model, m.timestamp, m.markdown, m.seq, m.html));");
+        html.append("  }");
+        html.append("  highlightWithin(holder);");
+        html.append("  var fragment = document.createDocumentFragment();");
+        html.append("  var created = [];");
+        html.append("  while (holder.firstChild) {");
+        html.append("    var el = holder.firstChild;");
+        html.append("    if (getSeq(el) >= 0) { created.push(el); v.live++; }");
+        html.append("    fragment.appendChild(el);");
+        html.append("  }");
+        html.append("  v.container.insertBefore(fragment, v.bottom);");
+        html.append("  var firstRendered = created.length > 0 ? getSeq(created[0]) : (items.length > 0 ? items[items.length - 1].seq + 1 : 0);");
+        html.append("  var from = typeof firstSeq === 'number' ? firstSeq : (items.length > 0 ? items[0].seq : firstRendered);");
+        html.append("  if (v.above.length > 0) from = Math.max(from, v.above[v.above.length - 1].seq + 1);");
+        html.append("  if (from >= 0 && from < firstRendered) {");
+        html.append("    var total = 0;");
+        html.append("    for (var j = 0; j < created.length; j++) total += outerHeight(created[j]);");
+        html.append("    var estimate = created.length > 0 ? Math.max(1, Math.round(total / created.length)) : 100;");
+        html.append("    for (var seq = from; seq < firstRendered; seq++) {");
+        html.append("      v.above.push({ seq: seq, h: estimate });");
+        html.append("      v.aboveHeight += estimate;");
+        html.append("    }");
+        html.append("  }");
+        html.append("  trimAbove(v, MAX_LIVE_MESSAGES);");
+        html.append("  window.scrollTo(0, document.body.scrollHeight);");
+        html.append("}");
+        html.append("function addMessage(content, type, model, timestamp, isMarkdown, seq, renderedHtml) {");
+        html.append("  if (type !== 'typing') removeTypingIndicator();");
+        html.append("  var messageDiv = createMessageElement(content, type, model, timestamp, isMarkdown, seq, renderedHtml);");
+        html.append("  appendMessageElement(messageDiv);");
+        html.append("  if (messageDiv.getElementsByTagName('code').length > 0) {");
+        html.append("    setTimeout(function() { highlightWithin(messageDiv); }, 10);");
+        html.append("  }");
         html.append("  window.scrollTo(0, document.body.scrollHeight);");
         html.append("}");
         
@@ -324,6 +744,50 @@ public class MarkdownToHtmlConverter {
         return html.toString();
     }
 
+    /**
+     * 코드 하이라이트 함수 (새로 추가된 노드 안의 코드 블록만 처리)
+     * 문서 전체를 다시 훑는 hljs.initHighlighting 대신 사용하며,
+     * 같은 언어/코드의 하이라이트 결과는 캐시해서 다시 계산하지 않는다.
+     */
+    private static void appendHighlightScript(StringBuilder html) {
+        html.append("var HL_CACHE_MAX = 500;");
+        html.append("var hlCache = {};");
+        html.append("var hlCacheSize = 0;");
+        html.append("function hashCode(text) {");
+        html.append("  var hash = 5381;");
+        html.append("  for (var i = 0; i < text.length; i++) {");
+        html.append("    hash = ((hash << 5) + hash + text.charCodeAt(i)) | 0;");
+        html.append("  }");
+        html.append("  return hash;");
+        html.append("}");
+        html.append("function highlightWithin(node) {");
+        html.append("  if (!node || typeof hljs === 'undefined') return;");
+        html.append("  var blocks = node.getElementsByTagName('code');");
+        html.append("  for (var i = 0; i < blocks.length; i++) {");
+        html.append("    var block = blocks[i];");
+        html.append("    var cls = block.className || '';");
+        html.append("    if (cls.indexOf('language-') !== 0 || (' ' + cls + ' ').indexOf(' hljs ') >= 0) continue;");
+        html.append("    var text = block.textContent || block.innerText || '';");
+        html.append("    var key = cls + ':' + text.length + ':' + hashCode(text);");
+        html.append("    var cached = hlCache[key];");
+        html.append("    if (cached && cached.text === text) {");
+        html.append("      block.innerHTML = cached.html;");
+        html.append("      block.className = cached.className;");
+        html.append("      continue;");
+        html.append("    }");
+        html.append("    try {");
+        html.append("      hljs.highlightBlock(block);");
+        html.append("    } catch (e) {");
+        html.append("      debugLog('highlightBlock 에러: ' + e.message);");
+        html.append("      continue;");
+        html.append("    }");
+        html.append("    if (hlCacheSize >= HL_CACHE_MAX) { hlCache = {}; hlCacheSize = 0; }");
+        html.append("    if (!cached) hlCacheSize++;");
+        html.append("    hlCache[key] = { text: text, html: block.innerHTML, className: block.className };");
+        html.append("  }");
+        html.append("}");
+    }
+
     /**
      * 채팅 히스토리를 HTML로 변환 (기존 호환성 유지)
      */
@@ -399,9 +863,9 @@ public class MarkdownToHtmlConverter {
         html.append("} else {");
         html.append("  debugLog('marked.js 로드 실패!');");
         html.append("}");
+        appendHighlightScript(html);
         html.append("if (typeof hljs !== 'undefined') {");
         html.append("  debugLog('highlight.js 로드 성공!');");
-        html.append("  hljs.initHighlighting();");
         html.append("} else {");
         html.append("  debugLog('highlight.js 로드 실패!');");
         html.append("}");
@@ -427,8 +891,17 @@ public class MarkdownToHtmlConverter {
         }
         
         // 메시지 내용
+        String renderedHtml = renderMarkdown(message);
         if (message.getType() == ChatMessage.Type.TYPING) {
             html.append("응답을 생성 중입니다...");
+        } else if (renderedHtml != null) {
+            // Java에서 렌더링한 HTML을 그대로 넣고 하이라이트만 적용
+            String messageId = "msg-" + System.currentTimeMillis() + "-" + Math.random();
+            html.append("<div id='").append(messageId).append("'>");
+            html.append(renderedHtml);
+            html.append("</div>");
+            html.append("<script>setTimeout(function() { highlightWithin(document.getElementById('")
+                .append(messageId).append("')); }, 100);</script>");
         } else if (message.getType() == ChatMessage.Type.ASSISTANT) {
             // AI 응답은 마크다운으로 처리 (클라이언트사이드에서 파싱)
             String messageId = "msg-" + System.currentTimeMillis() + "-" + Math.random();
@@ -442,22 +915,7 @@ public class MarkdownToHtmlConverter {
             html.append("    try {");
             html.append("      elem.innerHTML = marked.parse(elem.textContent || elem.innerText);");
             html.append("      ");
-            html.append("      setTimeout(function() {");
-            html.append("        debugLog('convertMessageToHTML setTimeout 시작');");
-            html.append("        if (typeof hljs !== 'undefined') {");
-            html.append("          debugLog('convertMessageToHTML hljs 객체 존재');");
-            html.append("          try {");
-            html.append("            var codeBlocks = document.querySelectorAll('pre code');");
-            html.append("            debugLog('convertMessageToHTML 코드 블록 갯수: ' + codeBlocks.length);");
-            html.append("            hljs.initHighlighting();");
-            html.append("            debugLog('convertMessageToHTML hljs.initHighlighting() 성공');");
-            html.append("          } catch (e) {");
-            html.append("            debugLog('convertMessageToHTML hljs.initHighlighting() 에러: ' + e.message);");
-            html.append("          }");
-            html.append("        } else {");
-            html.append("          debugLog('convertMessageToHTML hljs 객체 없음');");
-            html.append("        }");
-            html.append("      }, 100);");
+            html.append("      setTimeout(function() { highlightWithin(elem); }, 100);");
             html.append("    } catch (e) {");
             html.append("      console.log('Markdown parsing error:', e);");
             html.append("      elem.innerHTML = elem.innerHTML.replace(/\\n/g, '<br>');");
@@ -496,6 +954,13 @@ public class MarkdownToHtmlConverter {
      * 채팅 히스토리를 브라우저에 추가 (JavaScript 호출)
      */
     public String getAddMessageScript(ChatMessage message) {
+        return getAddMessageScript(message, -1);
+    }
+
+    /**
+     * @param sequence 히스토리 일련번호 (뷰포트에서 잘려 나간 뒤 다시 불러올 때 사용, 없으면 -1)
+     */
+    public String getAddMessageScript(ChatMessage message, long sequence) {
         String content = escapeJavaScript(message.getContent());
         String type = getTypeString(message.getType());
         String model = message.getModel() != null ? escapeJavaScript(message.getModel()) : "";
@@ -504,25 +969,155 @@ public class MarkdownToHtmlConverter {
         // AI 응답은 마크다운 파싱, 사용자 메시지는 일반 텍스트
         boolean isMarkdown = (message.getType() == ChatMessage.Type.ASSISTANT);
         
+        String renderedHtml = renderMarkdown(message);
+        if (renderedHtml != null) {
+            return "addMessage('" + content + "', '" + type + "', '" + model + "', '" + 
+                   timestamp + "', " + isMarkdown + ", " + sequence + ", '" + escapeJavaScript(renderedHtml) + "');";
+        }
         return "addMessage('" + content + "', '" + type + "', '" + model + "', '" + 
-               timestamp + "', " + isMarkdown + ");";
+               timestamp + "', " + isMarkdown + ", " + sequence + ");";
+    }
+
+    /**
+     * 스트리밍 응답 메시지 시작 (타이핑 인디케이터를 빈 메시지로 교체)
+     * @param streamId 이후 append/finish 호출에 쓸 식별자
+     */
+    public String getBeginMessageScript(String streamId, ChatMessage message) {
+        String type = getTypeString(message.getType());
+        String model = message.getModel() != null ? escapeJavaScript(message.getModel()) : "";
+        return "beginMessage('" + escapeJavaScript(streamId) + "', '" + type + "', '" + model + "', '" +
+               message.getFormattedTime() + "');";
+    }
+
+    /**
+     * 스트리밍 메시지에 새로 도착한 텍스트만 추가 (누적 텍스트 전체를 다시 보내지 않음)
+     */
+    public String getAppendToMessageScript(String streamId, String delta) {
+        return "appendToMessage('" + escapeJavaScript(streamId) + "', '" + escapeJavaScript(delta) + "');";
+    }
+
+    /**
+     * 스트리밍 메시지 마무리 (남은 텍스트를 렌더링하고 하이라이트 적용)
+     * @param sequence 히스토리에 저장된 일련번호, 저장되지 않은 부분 응답이면 -1
+     */
+    public String getFinishMessageScript(String streamId, long sequence) {
+        return "finishMessage('" + escapeJavaScript(streamId) + "', " + sequence + ");";
+    }
+
+    /**
+     * 스트리밍 메시지 마무리, 서버 쪽 렌더링이 켜져 있으면 완성된 답변을 Java에서 렌더링한 HTML로 교체
+     */
+    public String getFinishMessageScript(String streamId, long sequence, ChatMessage message) {
+        String renderedHtml = renderMarkdown(message);
+        if (renderedHtml == null) {
+            return getFinishMessageScript(streamId, sequence);
+        }
+        return "finishMessage('" + escapeJavaScript(streamId) + "', " + sequence + ", '" +
+               escapeJavaScript(renderedHtml) + "');";
+    }
+
+    /**
+     * 비교 모드 메시지 시작 (모델마다 열 하나, 열의 스트림 ID는 getCompareColumnId)
+     */
+    public String getBeginCompareScript(String groupId, List<String> labels, String timestamp) {
+        // org.json은 '</'를 이스케이프하므로 배열을 그대로 스크립트 리터럴로 사용
+        return "beginCompare('" + escapeJavaScript(groupId) + "', " + new JSONArray(labels).toString() + ", '" +
+               escapeJavaScript(timestamp) + "');";
+    }
+
+    public static String getCompareColumnId(String groupId, int column) {
+        return groupId + "-" + column;
+    }
+
+    /**
+     * 비교 열 아래의 지연/토큰 정보 갱신
+     */
+    public String getCompareStatsScript(String columnId, String text) {
+        return "setCompareStats('" + escapeJavaScript(columnId) + "', '" + escapeJavaScript(text) + "');";
+    }
+
+    /**
+     * 모든 열이 끝난 비교 메시지 마무리
+     * @param sequence 대화 기록에 저장한 비교 결과 메시지의 번호 (-1이면 저장하지 않음)
+     */
+    public String getFinishCompareScript(String groupId, long sequence) {
+        return "finishCompare('" + escapeJavaScript(groupId) + "', " + sequence + ");";
+    }
+
+    /**
+     * 마크다운을 Java에서 렌더링할지 여부 (끄면 브라우저의 marked.js 사용)
+     */
+    public void setServerSideMarkdown(boolean serverSideMarkdown) {
+        this.serverSideMarkdown = serverSideMarkdown;
+    }
+
+    public boolean isServerSideMarkdown() {
+        return serverSideMarkdown;
+    }
+
+    /**
+     * 서버 쪽 렌더링 대상(AI 응답)이면 캐시된 HTML, 아니면 null
+     */
+    private String renderMarkdown(ChatMessage message) {
+        if (!serverSideMarkdown || message.getType() != ChatMessage.Type.ASSISTANT) {
+            return null;
+        }
+        return MARKDOWN_RENDERER.render(message.getContent());
+    }
+
+    /**
+     * 뷰포트가 다시 그릴 메시지 목록 [from, to)을 JSON 배열 문자열로 변환
+     * 히스토리와 저널 어디에도 없는 번호는 건너뛴다.
+     */
+    public String getMessagesJson(ChatHistory chatHistory, long from, long to) {
+        JSONArray array = new JSONArray();
+        for (long seq = from; seq < to; seq++) {
+            ChatMessage message = chatHistory.getMessageBySequence(seq);
+            if (message == null) {
+                continue;
+            }
+            array.put(toMessageJson(message, seq));
+        }
+        return array.toString();
+    }
+
+    /**
+     * 브라우저 렌더링용 메시지 JSON (createMessageElement 인자와 같은 필드)
+     */
+    private JSONObject toMessageJson(ChatMessage message, long sequence) {
+        JSONObject item = new JSONObject();
+        item.put("seq", sequence);
+        item.put("content", message.getContent());
+        item.put("type", getTypeString(message.getType()));
+        item.put("model", message.getModel() != null ? message.getModel() : "");
+        item.put("timestamp", message.getFormattedTime());
+        item.put("markdown", message.getType() == ChatMessage.Type.ASSISTANT);
+        String renderedHtml = renderMarkdown(message);
+        if (renderedHtml != null) {
+            item.put("html", renderedHtml);
+        }
+        return item;
     }
 
     /**
      * 전체 채팅 히스토리를 브라우저에 로드
      */
     public String getAllMessagesScript(ChatHistory chatHistory) {
-        StringBuilder script = new StringBuilder();
-        
-        // 기존 메시지들 삭제
-        script.append("document.getElementById('chatContainer').innerHTML = '';");
-        
-        // 모든 메시지 추가
+        // 메시지별 addMessage 호출 대신 JSON 배열 하나를 addMessages로 넘겨 한 번에 렌더링
+        // (org.json은 '</'와 U+2028/U+2029를 이스케이프하므로 그대로 스크립트 리터럴로 사용 가능)
+        JSONArray items = new JSONArray();
         List<ChatMessage> messages = chatHistory.getMessages();
-        for (ChatMessage message : messages) {
-            script.append(getAddMessageScript(message));
+        for (int i = 0; i < messages.size(); i++) {
+            ChatMessage message = messages.get(i);
+            long sequence = message.getType() == ChatMessage.Type.TYPING ? -1 : chatHistory.getSequenceOf(i);
+            items.put(toMessageJson(message, sequence));
         }
         
+        StringBuilder script = new StringBuilder(items.length() * 256 + 64);
+        // 기존 메시지들 삭제
+        script.append("clearMessages('');");
+        script.append("addMessages(").append(items.toString()).append(", ")
+              .append(chatHistory.getFirstAvailableSequence()).append(");");
         return script.toString();
     }
 
@@ -543,114 +1138,51 @@ public class MarkdownToHtmlConverter {
      * JavaScript 문자열 이스케이프
      */
     private String escapeJavaScript(String text) {
-        if (text == null) return "";
-        return text.replaceAll("\\\\", "\\\\\\\\")
-                  .replaceAll("'", "\\\\'")
-                  .replaceAll("\"", "\\\\\"")
-                  .replaceAll("\n", "\\\\n")
-                  .replaceAll("\r", "\\\\r")
-                  .replaceAll("\t", "\\\\t");
+        return TextEscaper.escapeJavaScript(text);
     }
 
     /**
      * HTML 이스케이프 처리 (기본 안전장치)
      */
     private String escapeHtml(String text) {
-        if (text == null) return "";
-        return text.replaceAll("&", "&amp;")
-                  .replaceAll("<", "&lt;")
-                  .replaceAll(">", "&gt;")
-                  .replaceAll("\"", "&quot;")
-                  .replaceAll("'", "&#x27;");
+        return TextEscaper.escapeHtml(text);
     }
 
     /**
-     * marked.js 파일 로드
+     * marked.js 파일 로드 (프로세스 전역 캐시)
      */
     private String loadMarkedJS() {
-        try {
-            InputStream is = getClass().getClassLoader().getResourceAsStream("web/marked.min.js");
-            if (is == null) {
-                System.err.println("marked.min.js 파일을 찾을 수 없습니다. resources/web/marked.min.js 경로를 확인하세요.");
-                return "";
-            }
-            
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-            StringBuilder content = new StringBuilder();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-            reader.close();
-            
-            System.out.println("marked.js 로드 완료 (" + content.length() + " 문자)");
-            return content.toString();
-            
-        } catch (Exception e) {
-            System.err.println("marked.js 로드 오류: " + e.getMessage());
-            e.printStackTrace();
-            return "";
-        }
+        return WebAssetCache.get(WebAssetCache.MARKED_JS);
     }
 
     /**
-     * highlight.js 파일 로드
+     * highlight.js 파일 로드 (프로세스 전역 캐시)
      */
     private String loadHighlightJS() {
-        try {
-            InputStream is = getClass().getClassLoader().getResourceAsStream("web/highlight.min.js");
-            if (is == null) {
-                System.err.println("highlight.min.js 파일을 찾을 수 없습니다. resources/web/highlight.min.js 경로를 확인하세요.");
-                return "";
-            }
-            
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-            StringBuilder content = new StringBuilder();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-            reader.close();
-            
-            System.out.println("highlight.js 로드 완료 (" + content.length() + " 문자)");
-            return content.toString();
-            
-        } catch (Exception e) {
-            System.err.println("highlight.js 로드 오류: " + e.getMessage());
-            e.printStackTrace();
-            return "";
-        }
+        return WebAssetCache.get(WebAssetCache.HIGHLIGHT_JS);
     }
 
     /**
-     * highlight.js CSS 테마 로드
+     * highlight.js CSS 테마 로드 (프로세스 전역 캐시)
      */
     private String loadHighlightCSS() {
-        try {
-            InputStream is = getClass().getClassLoader().getResourceAsStream("web/highlight-dark.min.css");
-            if (is == null) {
-                System.err.println("highlight-dark.min.css 파일을 찾을 수 없습니다. resources/web/highlight-dark.min.css 경로를 확인하세요.");
-                return "";
-            }
-            
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-            StringBuilder content = new StringBuilder();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-            reader.close();
-            
-            System.out.println("highlight.js CSS 로드 완료 (" + content.length() + " 문자)");
-            return content.toString();
-            
-        } catch (Exception e) {
-            System.err.println("highlight.js CSS 로드 오류: " + e.getMessage());
-            e.printStackTrace();
-            return "";
-        }
+        return WebAssetCache.get(WebAssetCache.HIGHLIGHT_CSS);
+    }
+
+    /**
+     * 자원 경로에서 파일 이름만 추출 (web/marked.min.js -> marked.min.js)
+     */
+    static String assetFileName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * 자원 캐시와 미리 만든 페이지 비우기 (플러그인 종료 시)
+     */
+    public static void clearCaches() {
+        WebAssetCache.clear();
+        ChatPageInstaller.reset();
+        chatPageShell = null;
+        MARKDOWN_RENDERER.clearCache();
     }
 }
\ No newline at end of file
@@ -4,6 +4,12 @@ package com.kiassist.core;
  * LLM 모델 설정 정보를 담는 클래스
  */
 public class ModelConfig {
+
+    // 요청 제한 시간 기본값 (ms, 0이면 제한 없음)
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 10000;
+    public static final int DEFAULT_FIRST_BYTE_TIMEOUT_MS = 120000;
+    public static final int DEFAULT_IDLE_TIMEOUT_MS = 60000;
+
     private String id;
     private String name;
     private String displayName;
@@ -13,11 +19,19 @@ public class ModelConfig {
     private int maxTokens;
     private double temperature;
     private boolean enabled;
+    private int connectTimeout;   // TCP/TLS 연결
+    private int firstByteTimeout; // 요청 전송 후 응답 헤더까지 (비스트리밍은 답변 생성 전체)
+    private int idleTimeout;      // 데이터 사이 간격
+    private String hedgeModelId;  // 응답이 늦으면 같은 요청을 보낼 보조 모델 (빈 문자열이면 사용 안 함)
     
     public ModelConfig() {
         this.enabled = true;
         this.maxTokens = 1000;
         this.temperature = 0.7;
+        this.connectTimeout = DEFAULT_CONNECT_TIMEOUT_MS;
+        this.firstByteTimeout = DEFAULT_FIRST_BYTE_TIMEOUT_MS;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT_MS;
+        this.hedgeModelId = "";
     }
     
     public ModelConfig(String id, String name, String displayName, String apiUrl, String apiKey) {
@@ -102,4 +116,36 @@ public class ModelConfig {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+    
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+    
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+    
+    public int getFirstByteTimeout() {
+        return firstByteTimeout;
+    }
+    
+    public void setFirstByteTimeout(int firstByteTimeout) {
+        this.firstByteTimeout = firstByteTimeout;
+    }
+    
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+    
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    public String getHedgeModelId() {
+        return hedgeModelId;
+    }
+    
+    public void setHedgeModelId(String hedgeModelId) {
+        this.hedgeModelId = hedgeModelId != null ? hedgeModelId.trim() : "";
+    }
 }
\ No newline at end of file
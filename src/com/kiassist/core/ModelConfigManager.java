@@ -17,6 +17,8 @@ import com.kiassist.preferences.PreferenceConstants;
  */
 public class ModelConfigManager {
     
+    private static final int CUSTOM_FIRST_BYTE_TIMEOUT_MS = 300000;
+    
     private static ModelConfigManager instance;
     private List<ModelConfig> models;
     
@@ -39,15 +41,12 @@ public class ModelConfigManager {
         IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(Activator.PLUGIN_ID);
         String configsJson = prefs.get(PreferenceConstants.MODEL_CONFIGS, "");
         
-        System.out.println("저장된 모델 설정 로드: " + (configsJson.isEmpty() ? "없음" : configsJson.length() + " 문자"));
-        
         if (configsJson.isEmpty()) {
             // 기본 모델들 초기화
-            System.out.println("기본 모델들을 초기화합니다.");
+            PluginLog.info("저장된 모델 설정이 없어 기본 모델들을 초기화합니다.");
             initializeDefaultModels();
         } else {
             // JSON에서 파싱 (간단한 파싱)
-            System.out.println("저장된 설정에서 모델들을 로드합니다.");
             parseModelsFromJson(configsJson);
             //initializeDefaultModels();
         }
@@ -62,6 +61,7 @@ public class ModelConfigManager {
         // KI Assist 커스텀 모델
         ModelConfig kiAssist = new ModelConfig("ki-assist-custom", "ki-assist-custom", "KI Assist (커스텀)", 
             "http://114.207.145.84:8000/chat", "API_KEY");
+        kiAssist.setFirstByteTimeout(defaultFirstByteTimeout(kiAssist.getId()));
         models.add(kiAssist);
         
         // GPT 모델들
@@ -94,7 +94,6 @@ public class ModelConfigManager {
      * JSON에서 모델 설정 파싱 (org.json 사용)
      */
     private void parseModelsFromJson(String jsonString) {
-        System.out.println("parseModelsFromJson : " + jsonString);
         models.clear();
         
         try {
@@ -113,23 +112,30 @@ public class ModelConfigManager {
                 model.setMaxTokens(jsonObject.optInt("maxTokens", 1000));
                 model.setTemperature(jsonObject.optDouble("temperature", 0.7));
                 model.setEnabled(jsonObject.optBoolean("enabled", true));
-                
-                System.out.println("파싱된 모델: " + model.getDisplayName());
-                System.out.println("  - API URL: " + model.getApiUrl());
-                System.out.println("  - API Key: " + (model.getApiKey().isEmpty() ? "없음" : "[설정됨]"));
+                model.setConnectTimeout(jsonObject.optInt("connectTimeoutMs", ModelConfig.DEFAULT_CONNECT_TIMEOUT_MS));
+                model.setFirstByteTimeout(jsonObject.optInt("firstByteTimeoutMs", defaultFirstByteTimeout(model.getId())));
+                model.setIdleTimeout(jsonObject.optInt("idleTimeoutMs", ModelConfig.DEFAULT_IDLE_TIMEOUT_MS));
+                model.setHedgeModelId(jsonObject.optString("hedgeModelId", ""));
                 
                 models.add(model);
             }
             
-            System.out.println("총 " + models.size() + "개 모델을 로드했습니다.");
+            PluginLog.debug("모델 설정 로드: " + models.size() + "개 (" + jsonString.length() + " 문자)");
             
         } catch (Exception e) {
-            System.err.println("모델 설정 파싱 오류: " + e.getMessage());
-            e.printStackTrace();
+            PluginLog.error("모델 설정 파싱 오류 - 기본 모델로 초기화합니다.", e);
             initializeDefaultModels();
         }
     }
     
+    /**
+     * 첫 응답 제한 시간 기본값
+     * 커스텀 모델은 스트리밍 없이 전체 답변을 만든 뒤 응답하므로 첫 응답을 더 오래 기다림
+     */
+    private static int defaultFirstByteTimeout(String modelId) {
+        return "ki-assist-custom".equals(modelId) ? CUSTOM_FIRST_BYTE_TIMEOUT_MS : ModelConfig.DEFAULT_FIRST_BYTE_TIMEOUT_MS;
+    }
+    
     /**
      * 모델 설정을 JSON으로 저장 (org.json 사용)
      */
@@ -140,14 +146,6 @@ public class ModelConfigManager {
             for (int i = 0; i < models.size(); i++) {
                 ModelConfig model = models.get(i);
                 
-                // 디버그: 각 모델의 현재 값들 출력
-                System.out.println("저장할 모델 [" + i + "]: " + model.getDisplayName());
-                System.out.println("  - ID: " + model.getId());
-                System.out.println("  - API URL: " + model.getApiUrl());
-                System.out.println("  - API Key: " + (model.getApiKey() != null && !model.getApiKey().isEmpty() ? "[설정됨]" : "없음"));
-                System.out.println("  - Max Tokens: " + model.getMaxTokens());
-                System.out.println("  - Temperature: " + model.getTemperature());
-                
                 JSONObject jsonObject = new JSONObject();
                 jsonObject.put("id", model.getId());
                 jsonObject.put("name", model.getName());
@@ -158,6 +156,10 @@ public class ModelConfigManager {
                 jsonObject.put("maxTokens", model.getMaxTokens());
                 jsonObject.put("temperature", model.getTemperature());
                 jsonObject.put("enabled", model.isEnabled());
+                jsonObject.put("connectTimeoutMs", model.getConnectTimeout());
+                jsonObject.put("firstByteTimeoutMs", model.getFirstByteTimeout());
+                jsonObject.put("idleTimeoutMs", model.getIdleTimeout());
+                jsonObject.put("hedgeModelId", model.getHedgeModelId());
                 
                 jsonArray.put(jsonObject);
             }
@@ -168,12 +170,11 @@ public class ModelConfigManager {
             prefs.put(PreferenceConstants.MODEL_CONFIGS, jsonString);
             
             prefs.flush();
-            System.out.println("모델 설정이 성공적으로 저장되었습니다: " + jsonString.length() + " 문자");
-            System.out.println("저장된 JSON: " + jsonString);
+            // JSON에는 API 키가 들어 있으므로 크기만 기록
+            PluginLog.debug("모델 설정 저장: " + models.size() + "개 (" + jsonString.length() + " 문자)");
             
         } catch (Exception e) {
-            System.err.println("모델 설정 저장 오류: " + e.getMessage());
-            e.printStackTrace();
+            PluginLog.error("모델 설정 저장 오류", e);
         }
     }
     
@@ -0,0 +1,159 @@
+package com.kiassist.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 모델 하나의 누적 요청 통계 (잠금 없음)
+ * 시간 히스토그램은 마이크로초, 생성 속도는 초당 토큰 수 단위
+ * JDK 7 호환
+ */
+public class ModelLatencyStats {
+
+    private final String modelId;
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram firstByte = new LatencyHistogram();
+    private final LatencyHistogram firstToken = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram tokensPerSecond = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong circuitOpens = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    ModelLatencyStats(String modelId) {
+        this.modelId = modelId;
+    }
+
+    /**
+     * 끝난 요청 하나 반영 (실패한 요청은 횟수와 바이트만 셈)
+     */
+    void record(RequestTiming timing, boolean success) {
+        requests.incrementAndGet();
+        requestBytes.addAndGet(timing.getRequestBytes());
+        responseBytes.addAndGet(timing.getResponseBytes());
+        if (!success) {
+            failures.incrementAndGet();
+            return;
+        }
+        recordIfSet(connect, timing.getConnectMicros());
+        recordIfSet(firstByte, timing.getFirstByteMicros());
+        recordIfSet(firstToken, timing.getFirstTokenMicros());
+        recordIfSet(total, timing.getTotalMicros());
+        double rate = timing.getTokensPerSecond();
+        if (rate >= 0) {
+            tokensPerSecond.record(Math.round(rate));
+        }
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    void recordCircuitOpen() {
+        circuitOpens.incrementAndGet();
+    }
+
+    /**
+     * 회로가 열려 있어 보내지 않은 요청
+     */
+    void recordRejection() {
+        rejections.incrementAndGet();
+    }
+
+    /**
+     * 첫 응답이 늦어 보조 모델에도 요청을 보냄
+     */
+    void recordHedge() {
+        hedges.incrementAndGet();
+    }
+
+    /**
+     * 보조 모델 쪽이 먼저 답함
+     */
+    void recordHedgeWin() {
+        hedgeWins.incrementAndGet();
+    }
+
+    /**
+     * 응답 캐시에서 답함 (요청 수에는 포함하지 않음)
+     */
+    void recordCacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    private static void recordIfSet(LatencyHistogram histogram, long micros) {
+        if (micros >= 0) {
+            histogram.record(micros);
+        }
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    public LatencyHistogram getFirstByte() {
+        return firstByte;
+    }
+
+    public LatencyHistogram getFirstToken() {
+        return firstToken;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    public LatencyHistogram getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.get();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getCircuitOpens() {
+        return circuitOpens.get();
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+}
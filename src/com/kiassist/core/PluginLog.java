@@ -0,0 +1,216 @@
+package com.kiassist.core;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 플러그인 공용 로거 (레벨 필터 + 비동기 기록)
+ *
+ * 호출 스레드는 레벨을 확인하고 대기열에 넣기만 하며, 실제 기록은 전용 데몬 스레드가
+ * LogSink로 넘긴다. Activator가 시작할 때 Eclipse ILog로 보내는 싱크를 설치하고,
+ * 그 전이나 플러그인 밖(벤치마크 등)에서는 System.err로 기록한다.
+ * 대기열이 가득 차면 새 항목은 버리고 버린 개수를 다음 기록에 함께 남긴다.
+ *
+ * 프롬프트/응답 본문은 payload()로만 남기며 설정에서 켜지 않으면 기록하지 않는다.
+ * 큰 문자열을 만드는 디버그 로그는 isDebugEnabled()로 먼저 확인한다.
+ * JDK 7 호환
+ */
+public final class PluginLog {
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    /**
+     * 로그 기록 대상 (기록 스레드에서만 호출됨)
+     */
+    public interface LogSink {
+        void log(Level level, String message, Throwable error);
+    }
+
+    private static final int QUEUE_CAPACITY = 1024;
+    // 본문 로그 한 건의 최대 길이 (넘으면 잘라서 기록)
+    private static final int MAX_PAYLOAD_CHARS = 16 * 1024;
+
+    private static final LogSink CONSOLE_SINK = new LogSink() {
+        @Override
+        public void log(Level level, String message, Throwable error) {
+            System.err.println("[KI Assist " + level + "] " + message);
+            if (error != null) {
+                error.printStackTrace();
+            }
+        }
+    };
+
+    private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<Entry>(QUEUE_CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static volatile Level threshold = Level.INFO;
+    private static volatile boolean payloadEnabled;
+    private static volatile LogSink sink = CONSOLE_SINK;
+    private static Thread writer; // PluginLog.class 잠금으로 보호
+
+    private PluginLog() {
+    }
+
+    // 설정
+
+    public static void setLevel(Level level) {
+        threshold = level != null ? level : Level.INFO;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    /**
+     * 요청/응답 본문 기록 여부 (기본 꺼짐, DEBUG 레벨일 때만 유효)
+     */
+    public static void setPayloadEnabled(boolean enabled) {
+        payloadEnabled = enabled;
+    }
+
+    public static void setSink(LogSink newSink) {
+        sink = newSink != null ? newSink : CONSOLE_SINK;
+    }
+
+    public static boolean isDebugEnabled() {
+        return threshold == Level.DEBUG;
+    }
+
+    public static boolean isPayloadEnabled() {
+        return payloadEnabled && threshold == Level.DEBUG;
+    }
+
+    // 기록
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public static void warn(String message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public static void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * 프롬프트/응답 등 본문 기록 (설정에서 켰을 때만, 길면 잘라서)
+     */
+    public static void payload(String label, String content) {
+        if (!isPayloadEnabled() || content == null) {
+            return;
+        }
+        String text = content.length() > MAX_PAYLOAD_CHARS
+            ? content.substring(0, MAX_PAYLOAD_CHARS) + "... (" + content.length() + " 문자 중 일부)"
+            : content;
+        log(Level.DEBUG, label + ": " + text, null);
+    }
+
+    public static void log(Level level, String message, Throwable error) {
+        if (level.ordinal() < threshold.ordinal()) {
+            return;
+        }
+        if (!queue.offer(new Entry(level, message, error))) {
+            dropped.incrementAndGet();
+            return;
+        }
+        ensureWriter();
+    }
+
+    /**
+     * 남은 로그를 모두 기록하고 기록 스레드 종료 (플러그인 종료 시)
+     */
+    public static void shutdown(long timeoutMillis) {
+        Thread current;
+        synchronized (PluginLog.class) {
+            current = writer;
+            writer = null;
+        }
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+        sink = CONSOLE_SINK;
+    }
+
+    private static synchronized void ensureWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "KI Assist Log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static void writeLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Entry entry = queue.poll(1, TimeUnit.SECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+            }
+        } catch (InterruptedException e) {
+            // shutdown: 남은 항목은 호출한 스레드가 drain
+        }
+    }
+
+    private static void drain() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            write(entry);
+        }
+    }
+
+    private static void write(Entry entry) {
+        long lost = dropped.getAndSet(0);
+        try {
+            if (lost > 0) {
+                sink.log(Level.WARN, "로그 대기열이 가득 차 " + lost + "건을 기록하지 못했습니다.", null);
+            }
+            sink.log(entry.level, entry.message, entry.error);
+        } catch (RuntimeException e) {
+            // 싱크 오류로 기록 스레드가 멈추지 않도록 콘솔로 대신 기록
+            CONSOLE_SINK.log(entry.level, entry.message, entry.error);
+        }
+    }
+
+    private static class Entry {
+        final Level level;
+        final String message;
+        final Throwable error;
+
+        Entry(Level level, String message, Throwable error) {
+            this.level = level;
+            this.message = message;
+            this.error = error;
+        }
+    }
+}
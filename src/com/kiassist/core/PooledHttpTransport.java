@@ -0,0 +1,333 @@
+package com.kiassist.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 호스트별 keep-alive 연결을 재사용하는 LLMTransport
+ * 
+ * HttpURLConnection은 응답 본문을 끝까지 읽고 스트림을 닫으면 소켓을 JDK의
+ * keep-alive 캐시(호스트:포트 단위)에 반환하고, 같은 호스트로의 다음 요청에서
+ * TCP + TLS 핸드셰이크 없이 재사용한다. disconnect()를 호출하면 소켓이 닫히므로
+ * 정상 경로에서는 호출하지 않고, 응답을 닫을 때 남은 본문을 비워서 반환한다.
+ * 호스트별 동시 연결 수는 keep-alive 캐시 크기 안에서 재사용되도록 제한한다.
+ * 연결/읽기 제한 시간은 소켓에 두고, 그보다 짧은 첫 응답 제한 시간은 StallWatchdog으로,
+ * 짧은 멈춤 제한 시간은 IdleTimeoutInputStream으로 적용한다.
+ * JDK 7 호환
+ */
+public class PooledHttpTransport implements LLMTransport {
+
+    // JDK keep-alive 캐시의 기본 호스트당 유휴 연결 수(http.maxConnections)와 맞춤
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 5;
+    private static final int DRAIN_LIMIT = 64 * 1024; // 이보다 많이 남은 본문은 재사용하지 않고 닫음
+    private static final long ACQUIRE_TIMEOUT_MS = 60000;
+
+    private static PooledHttpTransport instance;
+
+    private final int maxConnectionsPerHost;
+    private final ConcurrentMap<String, Semaphore> hostPermits;
+    private final StallWatchdog watchdog = new StallWatchdog();
+    private volatile boolean closed;
+
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    public PooledHttpTransport(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.hostPermits = new ConcurrentHashMap<String, Semaphore>();
+    }
+
+    /**
+     * 플러그인 전체에서 공유하는 인스턴스
+     */
+    public static synchronized PooledHttpTransport getInstance() {
+        if (instance == null) {
+            instance = new PooledHttpTransport();
+        }
+        return instance;
+    }
+
+    /**
+     * 공유 인스턴스 정리 (플러그인 종료 시)
+     */
+    public static synchronized void closeInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    @Override
+    public LLMResponse execute(LLMRequest request) throws IOException {
+        if (closed) {
+            throw new IOException("전송 계층이 이미 종료되었습니다.");
+        }
+        if (request.isAborted()) {
+            throw new InterruptedIOException("요청이 취소되었습니다.");
+        }
+        
+        URL url = new URL(request.getUrl());
+        Semaphore permits = getHostPermits(url);
+        acquire(permits, url);
+        
+        HttpURLConnection conn = null;
+        StallWatchdog.Watch watch = null;
+        try {
+            conn = (HttpURLConnection) url.openConnection();
+            // 응답 헤더를 기다리는 동안에도 취소할 수 있도록 본문을 보내기 전에 등록
+            // (헤더 대기 중에는 disconnect()가 소켓을 닫아 블로킹 중인 읽기를 깨움)
+            final HttpURLConnection cancellable = conn;
+            request.setAborter(new Runnable() {
+                @Override
+                public void run() {
+                    cancellable.disconnect();
+                }
+            });
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Connection", "keep-alive");
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+            conn.setConnectTimeout(request.getConnectTimeout());
+            int readTimeout = readTimeoutFor(request);
+            conn.setReadTimeout(readTimeout);
+            conn.setUseCaches(false);
+            conn.setDoOutput(true);
+            
+            byte[] body = request.getBody().getBytes("UTF-8");
+            conn.setFixedLengthStreamingMode(body.length);
+            
+            // 연결 시간을 따로 재기 위해 명시적으로 연결 (keep-alive 캐시에 있으면 재사용)
+            RequestTiming timing = request.getTiming();
+            try {
+                conn.connect();
+            } catch (SocketTimeoutException e) {
+                throw new ConnectTimeoutException(request.getConnectTimeout(), e);
+            }
+            if (timing != null) {
+                timing.markConnected();
+                timing.setRequestBytes(body.length);
+            }
+            // 소켓 읽기 제한보다 짧은 첫 응답 제한은 감시 스레드가 적용
+            int firstByteTimeout = request.getFirstByteTimeout();
+            boolean watchFirstByte = firstByteTimeout > 0 && (readTimeout == 0 || firstByteTimeout < readTimeout);
+            watch = watchdog.watch(conn, watchFirstByte ? firstByteTimeout : 0);
+            
+            OutputStream out = conn.getOutputStream();
+            try {
+                out.write(body);
+                out.flush();
+            } finally {
+                out.close();
+            }
+            
+            // 상태 코드를 먼저 읽어 응답 헤더까지 수신
+            try {
+                conn.getResponseCode();
+            } catch (SocketTimeoutException e) {
+                throw StallWatchdog.firstByteTimeout(readTimeout, e);
+            }
+            watch.cancel();
+            // 이후의 취소는 LLMResponse.abort()가 담당
+            request.setAborter(null);
+            if (timing != null) {
+                timing.markFirstByte();
+            }
+            return new PooledResponse(conn, permits, request.getIdleTimeout());
+            
+        } catch (IOException e) {
+            // 실패한 연결은 재사용하지 않음
+            if (conn != null) {
+                conn.disconnect();
+            }
+            permits.release();
+            request.setAborter(null);
+            if (request.isAborted()) {
+                InterruptedIOException cancelled = new InterruptedIOException("요청이 취소되었습니다.");
+                cancelled.initCause(e);
+                throw cancelled;
+            }
+            if (watch != null) {
+                watch.cancel();
+                if (watch.isExpired()) {
+                    throw StallWatchdog.firstByteTimeout(watch.getTimeout(), e);
+                }
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            if (conn != null) {
+                conn.disconnect();
+            }
+            permits.release();
+            request.setAborter(null);
+            if (watch != null) {
+                watch.cancel();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 소켓 읽기 제한 시간 (0이면 제한 없음)
+     * 연결 후에는 바꿀 수 없고 헤더 대기와 본문 읽기에 모두 걸리므로 두 제한 중 긴 쪽을
+     * 마지막 안전장치로 둔다. 더 짧은 쪽은 StallWatchdog(첫 응답)과
+     * IdleTimeoutInputStream(멈춤)이 적용하며, 첫 응답 제한이 없으면 헤더를 무한히
+     * 기다려야 하므로 소켓 제한도 두지 않는다.
+     */
+    private static int readTimeoutFor(LLMRequest request) {
+        int firstByteTimeout = request.getFirstByteTimeout();
+        int idleTimeout = request.getIdleTimeout();
+        return firstByteTimeout > 0 && idleTimeout > 0 ? Math.max(firstByteTimeout, idleTimeout) : 0;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        hostPermits.clear();
+    }
+
+    private Semaphore getHostPermits(URL url) {
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+        String hostKey = url.getProtocol() + "://" + url.getHost().toLowerCase() + ":" + port;
+        
+        Semaphore permits = hostPermits.get(hostKey);
+        if (permits == null) {
+            Semaphore created = new Semaphore(maxConnectionsPerHost, true);
+            permits = hostPermits.putIfAbsent(hostKey, created);
+            if (permits == null) {
+                permits = created;
+            }
+        }
+        return permits;
+    }
+
+    private void acquire(Semaphore permits, URL url) throws IOException {
+        try {
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("연결 대기 시간 초과: " + url.getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("연결 대기 중 취소되었습니다: " + url.getHost());
+        }
+    }
+
+    /**
+     * 닫을 때 본문을 비워 소켓을 keep-alive 캐시로 돌려주는 응답
+     */
+    private static class PooledResponse implements LLMResponse {
+        private final HttpURLConnection conn;
+        private final Semaphore permits;
+        private final int idleTimeout;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private IdleTimeoutInputStream body;
+
+        PooledResponse(HttpURLConnection conn, Semaphore permits, int idleTimeout) {
+            this.conn = conn;
+            this.permits = permits;
+            this.idleTimeout = idleTimeout;
+        }
+
+        @Override
+        public int getStatusCode() throws IOException {
+            return conn.getResponseCode();
+        }
+
+        @Override
+        public String getStatusMessage() throws IOException {
+            return conn.getResponseMessage();
+        }
+
+        @Override
+        public String getContentType() {
+            return conn.getContentType();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return conn.getHeaderField(name);
+        }
+
+        @Override
+        public synchronized InputStream getBody() throws IOException {
+            if (body == null) {
+                // 오류 응답도 본문을 읽어야 연결이 재사용됨
+                InputStream in = conn.getResponseCode() >= 400 ? conn.getErrorStream() : conn.getInputStream();
+                body = new IdleTimeoutInputStream(in != null ? in : new ByteArrayInputStream(new byte[0]),
+                    conn, conn.getReadTimeout(), idleTimeout);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            
+            boolean reusable = false;
+            try {
+                InputStream in = getBody();
+                reusable = drain(in);
+                in.close();
+            } catch (IOException e) {
+                reusable = false;
+            } finally {
+                if (!reusable) {
+                    disconnect();
+                }
+                permits.release();
+            }
+        }
+
+        @Override
+        public void abort() {
+            // 연결을 닫고 permit 반환 (close() 중이라면 그쪽에서 반환)
+            disconnect();
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        /**
+         * 본문 읽기 스레드가 읽는 중이면 그 스레드가 끊도록 맡김 (호출한 스레드는 기다리지 않음)
+         */
+        private void disconnect() {
+            IdleTimeoutInputStream in;
+            synchronized (this) {
+                in = body;
+            }
+            if (in != null) {
+                in.disconnect();
+            } else {
+                conn.disconnect();
+            }
+        }
+
+        private boolean drain(InputStream in) throws IOException {
+            byte[] buffer = new byte[4096];
+            int total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > DRAIN_LIMIT) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kiassist.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LLM 요청을 처리하는 공유 작업 스레드 풀
+ * 동시 실행 수와 대기열 길이를 제한하고, 취소 가능한 Future를 돌려준다.
+ * Activator가 플러그인 시작 시 생성하고 종료 시 정리한다.
+ * JDK 7 호환
+ */
+public class RequestExecutor implements Executor {
+
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 32;
+    private static final long IDLE_KEEP_ALIVE_SECONDS = 60;
+    private static final String DEFAULT_THREAD_NAME = "KI Assist Request";
+
+    private final ThreadPoolExecutor executor;
+
+    public RequestExecutor() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public RequestExecutor(int threads, int queueCapacity) {
+        this(DEFAULT_THREAD_NAME, threads, queueCapacity);
+    }
+
+    /**
+     * @param threadName 스레드 이름 앞부분 (뒤에 "-번호"가 붙음)
+     */
+    public RequestExecutor(String threadName, int threads, int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads,
+            IDLE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(queueCapacity),
+            new RequestThreadFactory(threadName),
+            new ThreadPoolExecutor.AbortPolicy());
+        // 사용하지 않을 때는 스레드를 남겨두지 않음
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 요청 작업 제출
+     * @return 취소 가능한 Future (cancel(true) 시 작업 스레드에 인터럽트)
+     * @throws RejectedExecutionException 대기열이 가득 찼거나 이미 종료된 경우
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * 결과가 필요 없는 작업 제출 (CompletionService 등에서 사용)
+     * @throws RejectedExecutionException 대기열이 가득 찼거나 이미 종료된 경우
+     */
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * 실행을 기다리고 있는 요청 수
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 현재 실행 중인 요청 수
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * 새 요청을 받지 않고, 진행 중인 요청이 끝나기를 기다린 뒤 남은 작업은 인터럽트
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 디버깅 시 구분할 수 있도록 이름 붙인 데몬 스레드 생성
+     */
+    private static class RequestThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        RequestThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
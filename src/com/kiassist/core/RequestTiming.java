@@ -0,0 +1,133 @@
+package com.kiassist.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 요청 하나의 시각/크기 기록
+ * 전송 계층이 연결/첫 바이트 시각과 요청 크기를, LLMClient가 첫 토큰/종료 시각과
+ * 응답 크기, 토큰 수를 채운다. 한 요청은 한 작업 스레드에서만 기록한다.
+ * 시각은 System.nanoTime 기준이며 아직 기록되지 않은 시각은 0이다.
+ * JDK 7 호환
+ */
+public class RequestTiming {
+
+    private final long start = System.nanoTime();
+    private long connected;
+    private volatile long firstByte; // 헤징 대기 스레드도 읽음
+    private long firstToken;
+    private long end;
+    private long requestBytes;
+    private long responseBytes;
+    private int tokens;
+
+    /**
+     * 연결 완료 (재사용한 연결이면 거의 0)
+     */
+    public void markConnected() {
+        connected = System.nanoTime();
+    }
+
+    /**
+     * 응답 헤더 수신
+     */
+    public void markFirstByte() {
+        firstByte = System.nanoTime();
+    }
+
+    /**
+     * 답변 본문의 첫 조각 수신 (처음 한 번만 기록)
+     */
+    public void markFirstToken() {
+        if (firstToken == 0) {
+            firstToken = System.nanoTime();
+        }
+    }
+
+    public void markEnd() {
+        if (end == 0) {
+            end = System.nanoTime();
+        }
+    }
+
+    public void setRequestBytes(long requestBytes) {
+        this.requestBytes = requestBytes;
+    }
+
+    public void addTokens(int count) {
+        tokens += count;
+    }
+
+    /**
+     * 읽은 바이트 수를 responseBytes에 더하는 스트림으로 감쌈
+     */
+    public InputStream countResponse(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    responseBytes++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    responseBytes += read;
+                }
+                return read;
+            }
+        };
+    }
+
+    // 구간 (마이크로초, 기록되지 않았으면 -1)
+
+    public long getConnectMicros() {
+        return between(start, connected);
+    }
+
+    public long getFirstByteMicros() {
+        return between(start, firstByte);
+    }
+
+    public long getFirstTokenMicros() {
+        return between(start, firstToken);
+    }
+
+    public long getTotalMicros() {
+        return between(start, end);
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public int getTokens() {
+        return tokens;
+    }
+
+    /**
+     * 생성 속도 (첫 토큰 이후 구간 기준, 한 번에 받은 응답이면 전체 시간 기준)
+     * @return 초당 토큰 수, 계산할 수 없으면 -1
+     */
+    public double getTokensPerSecond() {
+        if (tokens == 0 || end == 0) {
+            return -1;
+        }
+        long from = firstToken != 0 && end - firstToken > 0 ? firstToken : start;
+        long nanos = end - from;
+        return nanos > 0 ? tokens * 1e9 / nanos : -1;
+    }
+
+    private static long between(long from, long to) {
+        return to == 0 ? -1 : (to - from) / 1000;
+    }
+}
@@ -0,0 +1,180 @@
+package com.kiassist.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 같은 요청에 대한 LLM 응답 캐시 (정확히 같은 요청 본문만 적중)
+ * LLMClient는 temperature가 0인 요청의 성공한 응답만 저장한다.
+ *
+ * 키는 모델 ID, 엔드포인트, 요청 JSON(모델명, temperature, max_tokens, 컨텍스트 메시지)의
+ * SHA-256이다. 최근에 쓴 순서로 최대 maxEntries개를 두고(LRU), 만료 시간은 조회할 때
+ * 적용하므로 설정을 바꾸면 기존 항목에도 바로 반영된다.
+ * 파일에는 오래된 항목부터 기록해 다시 읽어도 LRU 순서가 유지된다.
+ * Activator가 플러그인 상태 디렉터리에 생성/저장한다.
+ * JDK 7 호환
+ */
+public class ResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 200;
+    // 이보다 긴 응답은 저장하지 않음 (파일 크기 제한)
+    private static final int MAX_RESPONSE_CHARS = 64 * 1024;
+    private static final int FILE_VERSION = 1;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final LinkedHashMap<String, CachedResponse> entries;
+    private boolean dirty; // this 잠금으로 보호
+
+    public ResponseCache(File file) {
+        this(file, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ResponseCache(File file, final int maxEntries) {
+        this.file = file;
+        this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 요청의 캐시 키
+     * @param requestBody 스트리밍 여부를 뺀 요청 JSON
+     */
+    public static String keyFor(String modelKey, String endpoint, String requestBody) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelKey.getBytes(UTF8));
+            digest.update((byte) 0);
+            digest.update(endpoint.getBytes(UTF8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(requestBody.getBytes(UTF8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 캐시된 응답
+     * @param ttlMillis 만료 시간 (0 이하면 만료 없음)
+     * @return 없거나 만료되었으면 null
+     */
+    public synchronized String get(String key, long ttlMillis) {
+        CachedResponse entry = entries.get(key);
+        if (entry != null && ttlMillis > 0 && System.currentTimeMillis() - entry.created > ttlMillis) {
+            entries.remove(key);
+            dirty = true;
+            entry = null;
+        }
+        return entry != null ? entry.response : null;
+    }
+
+    public synchronized void put(String key, String modelKey, String response) {
+        if (response == null || response.isEmpty() || response.length() > MAX_RESPONSE_CHARS) {
+            return;
+        }
+        entries.put(key, new CachedResponse(modelKey, response, System.currentTimeMillis()));
+        dirty = true;
+    }
+
+    public synchronized void clear() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            dirty = true;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 파일에서 읽기 (파일이 없거나 형식이 맞지 않으면 빈 캐시로 시작)
+     */
+    public synchronized void load() {
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            JSONObject root = new JSONObject(new String(Files.readAllBytes(file.toPath()), UTF8));
+            if (root.optInt("version") != FILE_VERSION) {
+                return;
+            }
+            JSONArray items = root.getJSONArray("entries");
+            for (int i = 0; i < items.length(); i++) {
+                JSONObject item = items.getJSONObject(i);
+                entries.put(item.getString("key"),
+                    new CachedResponse(item.optString("model"), item.getString("response"), item.getLong("created")));
+            }
+        } catch (IOException e) {
+            PluginLog.warn("응답 캐시를 읽지 못했습니다: " + file, e);
+        } catch (JSONException e) {
+            PluginLog.warn("응답 캐시 파일 형식 오류 - 비우고 시작합니다: " + file, e);
+            entries.clear();
+        }
+    }
+
+    /**
+     * 바뀐 내용이 있으면 파일에 기록 (임시 파일에 쓴 뒤 교체)
+     */
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        JSONArray items = new JSONArray();
+        for (Map.Entry<String, CachedResponse> e : entries.entrySet()) {
+            JSONObject item = new JSONObject();
+            item.put("key", e.getKey());
+            item.put("model", e.getValue().modelKey);
+            item.put("created", e.getValue().created);
+            item.put("response", e.getValue().response);
+            items.put(item);
+        }
+        JSONObject root = new JSONObject();
+        root.put("version", FILE_VERSION);
+        root.put("entries", items);
+
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("디렉터리를 만들 수 없습니다: " + directory);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), root.toString().getBytes(UTF8));
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        dirty = false;
+    }
+
+    private static class CachedResponse {
+        final String modelKey;
+        final String response;
+        final long created;
+
+        CachedResponse(String modelKey, String response, long created) {
+            this.modelKey = modelKey;
+            this.response = response;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.net.ssl.SSLException;
+
+/**
+ * 실패한 LLM 요청의 재시도 판단과 대기 시간 계산
+ *
+ * 생성 요청은 멱등하지 않으므로 서버가 처리하기 전에 실패한 것이 확실한 경우
+ * (연결 실패, 429/502/503)만 재시도한다. 대기 시간은 지수 증가 + 전체 지터(0 ~ 상한)이다.
+ * 서버가 Retry-After를 보내면 그 시간만큼 기다리되 너무 길면 재시도하지 않는다.
+ * JDK 7 호환
+ */
+public class RetryPolicy {
+
+    // 첫 시도를 포함한 최대 시도 횟수
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_DELAY_MS = 500;
+    private static final long MAX_DELAY_MS = 8000;
+    // 이보다 긴 Retry-After는 기다리지 않고 바로 실패
+    private static final long MAX_RETRY_AFTER_MS = 30000;
+
+    public int getMaxAttempts() {
+        return MAX_ATTEMPTS;
+    }
+
+    /**
+     * 다음 시도 전 대기 시간
+     * @param attempt 방금 실패한 시도 번호 (1부터)
+     * @return 대기 시간(ms), 재시도하지 않으면 -1
+     */
+    public long getRetryDelay(int attempt, Exception error) {
+        if (attempt >= MAX_ATTEMPTS || !isRetryable(error)) {
+            return -1;
+        }
+        if (error instanceof LLMHttpException) {
+            long retryAfter = ((LLMHttpException) error).getRetryAfterMillis();
+            if (retryAfter > MAX_RETRY_AFTER_MS) {
+                return -1;
+            }
+            if (retryAfter >= 0) {
+                // 같은 시각에 몰리지 않도록 약간의 지터를 더함
+                return retryAfter + ThreadLocalRandom.current().nextLong(BASE_DELAY_MS);
+            }
+        }
+        long ceiling = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << (attempt - 1));
+        return 1 + ThreadLocalRandom.current().nextLong(ceiling);
+    }
+
+    /**
+     * 같은 요청을 다시 보내도 되는 오류인지
+     * 요청을 보낸 뒤의 제한 시간 초과나 연결 끊김은 서버가 이미 답변을 만들고 있을 수
+     * 있으므로 재시도하지 않는다.
+     */
+    public boolean isRetryable(Exception error) {
+        if (error instanceof LLMHttpException) {
+            int status = ((LLMHttpException) error).getStatusCode();
+            return status == 429 || status == 502 || status == 503;
+        }
+        return error instanceof ConnectTimeoutException || error instanceof ConnectException;
+    }
+
+    /**
+     * 엔드포인트 장애로 볼 오류인지 (회로 차단기 실패로 셈)
+     * 429는 서버가 살아 있으므로 재시도만 하고 장애로 보지 않는다.
+     * 재시도하지 않는 응답 제한 시간 초과와 연결 끊김도 장애로 센다.
+     */
+    public boolean isEndpointFailure(Exception error) {
+        if (error instanceof LLMHttpException) {
+            int status = ((LLMHttpException) error).getStatusCode();
+            return status == 500 || status == 502 || status == 503 || status == 504;
+        }
+        if (error instanceof CircuitOpenException
+                || error instanceof UnknownHostException
+                || error instanceof SSLException) {
+            return false;
+        }
+        if (error instanceof InterruptedIOException && !(error instanceof SocketTimeoutException)) {
+            return false; // 취소
+        }
+        return error instanceof IOException;
+    }
+
+    /**
+     * Retry-After 헤더 해석 (초 단위 숫자 또는 HTTP 날짜)
+     * @return 대기 시간(ms), 없거나 해석할 수 없으면 -1
+     */
+    public static long parseRetryAfter(String value) {
+        if (value == null) {
+            return -1;
+        }
+        value = value.trim();
+        if (value.isEmpty()) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds < 0 ? -1 : seconds * 1000;
+        } catch (NumberFormatException e) {
+            // HTTP 날짜 형식
+        }
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            Date date = format.parse(value);
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
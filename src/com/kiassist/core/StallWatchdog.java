@@ -0,0 +1,141 @@
+package com.kiassist.core;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 응답 헤더를 기다리다 멈춘 연결을 끊는 감시 스레드 (PooledHttpTransport 전용)
+ *
+ * HttpURLConnection의 읽기 제한 시간은 연결 후 바꿀 수 없으므로, 소켓에는 첫 응답과 멈춤
+ * 제한 중 긴 값을 두고 그보다 짧은 첫 응답 제한 시간은 이 스레드가 적용한다.
+ * 헤더 대기 중에는 disconnect()가 소켓을 바로 닫아 블로킹 중인 읽기를 깨운다.
+ * (본문을 읽는 중에는 스트림 잠금 때문에 깨우지 못하므로 본문의 멈춤 제한은
+ * IdleTimeoutInputStream이 읽기 스레드를 따로 두어 적용한다.)
+ * 감시할 연결이 없으면 스레드는 끝나고, 다음 요청에서 다시 시작한다.
+ * JDK 7 호환
+ */
+class StallWatchdog {
+
+    private static final long CHECK_INTERVAL_MS = 250;
+
+    private final Set<Watch> watches = Collections.newSetFromMap(new ConcurrentHashMap<Watch, Boolean>());
+    private Thread thread; // this 잠금으로 보호
+
+    /**
+     * 응답 헤더 대기 감시 시작
+     * @param timeout 제한 시간(ms, 0이면 감시하지 않음)
+     */
+    Watch watch(HttpURLConnection conn, int timeout) {
+        Watch watch = new Watch(conn, timeout);
+        if (timeout > 0) {
+            watches.add(watch);
+            ensureThread();
+        }
+        return watch;
+    }
+
+    private synchronized void ensureThread() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                checkLoop();
+            }
+        }, "KI Assist Timeout");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void checkLoop() {
+        while (true) {
+            synchronized (this) {
+                if (watches.isEmpty()) {
+                    thread = null;
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(CHECK_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    thread = null;
+                }
+                return;
+            }
+            long now = System.nanoTime();
+            for (Watch watch : watches) {
+                if (watch.checkExpired(now)) {
+                    watches.remove(watch);
+                }
+            }
+        }
+    }
+
+    /**
+     * 연결 하나의 감시 상태
+     */
+    class Watch {
+        private final HttpURLConnection conn;
+        private final int timeout;
+        private final long started = System.nanoTime();
+        private volatile boolean expired;
+
+        Watch(HttpURLConnection conn, int timeout) {
+            this.conn = conn;
+            this.timeout = timeout;
+        }
+
+        /**
+         * 감시 종료 (헤더를 받았거나 요청이 실패했을 때)
+         */
+        void cancel() {
+            watches.remove(this);
+        }
+
+        /**
+         * 제한 시간이 지나 이 감시자가 연결을 끊었는지
+         */
+        boolean isExpired() {
+            return expired;
+        }
+
+        int getTimeout() {
+            return timeout;
+        }
+
+        private boolean checkExpired(long now) {
+            if ((now - started) / 1000000 < timeout) {
+                return false;
+            }
+            expired = true;
+            conn.disconnect();
+            return true;
+        }
+    }
+
+    /**
+     * 첫 응답 제한 시간 초과 예외 (원래 예외를 원인으로)
+     */
+    static SocketTimeoutException firstByteTimeout(int timeout, IOException cause) {
+        SocketTimeoutException e = new SocketTimeoutException(
+            "첫 응답을 " + timeout / 1000 + "초 동안 받지 못해 요청을 중단했습니다.");
+        e.initCause(cause);
+        return e;
+    }
+
+    /**
+     * 본문 수신 중 멈춤 예외 (원래 예외를 원인으로)
+     */
+    static SocketTimeoutException idleTimeout(int timeout, IOException cause) {
+        SocketTimeoutException e = new SocketTimeoutException(
+            "응답이 " + timeout / 1000 + "초 동안 멈춰 요청을 중단했습니다.");
+        e.initCause(cause);
+        return e;
+    }
+}
@@ -0,0 +1,186 @@
+package com.kiassist.core;
+
+/**
+ * JavaScript 문자열 리터럴 / HTML 이스케이프 (정규식 없는 단일 패스)
+ * 문자별 치환 문자열 표를 한 번만 훑으며 재사용 버퍼에 기록하고,
+ * 바꿀 문자가 없으면 원본 문자열을 그대로 반환한다.
+ * JDK 7 호환
+ */
+public final class TextEscaper {
+
+    // 스레드별 재사용 버퍼가 이보다 커지면 버림 (큰 답변 하나로 메모리를 계속 잡지 않도록)
+    private static final int MAX_REUSED_CAPACITY = 1024 * 1024;
+
+    private static final String[] JS_ESCAPES = new String[128];
+    private static final String[] HTML_ESCAPES = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            JS_ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        JS_ESCAPES['\\'] = "\\\\";
+        JS_ESCAPES['\''] = "\\'";
+        JS_ESCAPES['"'] = "\\\"";
+        JS_ESCAPES['\n'] = "\\n";
+        JS_ESCAPES['\r'] = "\\r";
+        JS_ESCAPES['\t'] = "\\t";
+        JS_ESCAPES['\b'] = "\\b";
+        JS_ESCAPES['\f'] = "\\f";
+
+        HTML_ESCAPES['&'] = "&amp;";
+        HTML_ESCAPES['<'] = "&lt;";
+        HTML_ESCAPES['>'] = "&gt;";
+        HTML_ESCAPES['"'] = "&quot;";
+        HTML_ESCAPES['\''] = "&#x27;";
+    }
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(1024);
+        }
+    };
+
+    private TextEscaper() {
+    }
+
+    /**
+     * 작은따옴표/큰따옴표 JavaScript 문자열 리터럴 안에 넣을 수 있게 이스케이프
+     * 제어 문자, U+2028/U+2029(구형 엔진에서 줄바꿈으로 취급), "&lt;/"(&lt;/script&gt;로 스크립트 블록이 닫히지 않도록)도 처리
+     */
+    public static String escapeJavaScript(String text) {
+        if (text == null) {
+            return "";
+        }
+        int first = firstJavaScriptEscape(text);
+        if (first < 0) {
+            return text;
+        }
+        StringBuilder out = borrow(text.length() + 16);
+        out.append(text, 0, first);
+        escapeJavaScript(text, first, out);
+        return release(out);
+    }
+
+    /**
+     * out 뒤에 이스케이프한 결과 추가
+     */
+    public static void escapeJavaScript(String text, StringBuilder out) {
+        if (text != null) {
+            escapeJavaScript(text, 0, out);
+        }
+    }
+
+    private static void escapeJavaScript(String text, int from, StringBuilder out) {
+        int length = text.length();
+        int plain = from; // 아직 복사하지 않은 구간의 시작
+        for (int i = from; i < length; i++) {
+            char c = text.charAt(i);
+            String replacement;
+            if (c < 128) {
+                replacement = JS_ESCAPES[c];
+                if (replacement == null) {
+                    if (c != '/' || i == 0 || text.charAt(i - 1) != '<') {
+                        continue;
+                    }
+                    replacement = "\\/";
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            out.append(text, plain, i).append(replacement);
+            plain = i + 1;
+        }
+        out.append(text, plain, length);
+    }
+
+    private static int firstJavaScriptEscape(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                if (JS_ESCAPES[c] != null || c == '/' && i > 0 && text.charAt(i - 1) == '<') {
+                    return i;
+                }
+            } else if (c == '\u2028' || c == '\u2029') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * HTML 텍스트/속성 값 이스케이프 (&amp; &lt; &gt; &quot; ')
+     */
+    public static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        int first = firstHtmlEscape(text);
+        if (first < 0) {
+            return text;
+        }
+        StringBuilder out = borrow(text.length() + 16);
+        out.append(text, 0, first);
+        escapeHtml(text, first, out);
+        return release(out);
+    }
+
+    /**
+     * out 뒤에 이스케이프한 결과 추가
+     */
+    public static void escapeHtml(String text, StringBuilder out) {
+        if (text != null) {
+            escapeHtml(text, 0, out);
+        }
+    }
+
+    private static void escapeHtml(String text, int from, StringBuilder out) {
+        int length = text.length();
+        int plain = from;
+        for (int i = from; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 128) {
+                continue;
+            }
+            String replacement = HTML_ESCAPES[c];
+            if (replacement != null) {
+                out.append(text, plain, i).append(replacement);
+                plain = i + 1;
+            }
+        }
+        out.append(text, plain, length);
+    }
+
+    private static int firstHtmlEscape(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && HTML_ESCAPES[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static StringBuilder borrow(int capacity) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(capacity);
+        return out;
+    }
+
+    private static String release(StringBuilder out) {
+        String result = out.toString();
+        if (out.capacity() > MAX_REUSED_CAPACITY) {
+            BUFFER.remove();
+        } else {
+            out.setLength(0);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.kiassist.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * resources/web 아래 정적 자원(marked.js, highlight.js 등)의 프로세스 전역 캐시
+ * 처음 요청될 때 한 번만 통째로 읽고, 이후 모든 뷰가 같은 문자열을 공유한다.
+ * 플러그인 종료 시 Activator가 clear()를 호출한다.
+ * JDK 7 호환
+ */
+public class WebAssetCache {
+
+    public static final String MARKED_JS = "web/marked.min.js";
+    public static final String HIGHLIGHT_JS = "web/highlight.min.js";
+    public static final String HIGHLIGHT_CSS = "web/highlight-dark.min.css";
+
+    private static final ConcurrentMap<String, String> assets = new ConcurrentHashMap<String, String>();
+
+    private WebAssetCache() {
+    }
+
+    /**
+     * 자원 내용 (찾지 못하면 빈 문자열)
+     */
+    public static String get(String path) {
+        String content = assets.get(path);
+        if (content == null) {
+            content = load(path);
+            String previous = assets.putIfAbsent(path, content);
+            if (previous != null) {
+                content = previous;
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 캐시 비우기 (다음 요청 시 다시 로드)
+     */
+    public static void clear() {
+        assets.clear();
+    }
+
+    private static String load(String path) {
+        InputStream is = WebAssetCache.class.getClassLoader().getResourceAsStream(path);
+        if (is == null) {
+            PluginLog.error(path + " 파일을 찾을 수 없습니다. resources/" + path + " 경로를 확인하세요.");
+            return "";
+        }
+
+        try {
+            try {
+                String content = new String(readAll(is), "UTF-8");
+                PluginLog.debug(path + " 로드 완료 (" + content.length() + " 문자)");
+                return content;
+            } finally {
+                is.close();
+            }
+        } catch (IOException e) {
+            PluginLog.error(path + " 로드 오류", e);
+            return "";
+        }
+    }
+
+    /**
+     * 스트림 전체를 버퍼 단위로 읽음 (줄 단위 분해 없음)
+     */
+    static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(8192, is.available()));
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,7 +1,9 @@
 package com.kiassist.preferences;
 
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.jface.preference.ComboFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
@@ -16,6 +18,7 @@ import org.eclipse.swt.widgets.Combo;
 import com.kiassist.Activator;
 import com.kiassist.core.ModelConfigManager;
 import com.kiassist.core.ModelConfig;
+import com.kiassist.core.PluginLog;
 
 /**
  * KI Assist 설정 페이지
@@ -29,6 +32,10 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
     private StringFieldEditor apiKeyEditor;
     private StringFieldEditor maxTokensEditor;
     private StringFieldEditor temperatureEditor;
+    private StringFieldEditor connectTimeoutEditor;
+    private StringFieldEditor firstByteTimeoutEditor;
+    private StringFieldEditor idleTimeoutEditor;
+    private StringFieldEditor hedgeModelEditor;
     private ModelConfigManager modelManager;
 
     public KIAssistPreferencePage() {
@@ -51,7 +58,7 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
             protected void fireValueChanged(String property, Object oldValue, Object newValue) {
                 super.fireValueChanged(property, oldValue, newValue);
                 
-                System.out.println("fireValueChanged - property: " + property + ", oldValue: " + oldValue + ", newValue: " + newValue);
+                PluginLog.debug("기본 모델 변경: " + oldValue + " -> " + newValue);
                 // 값이 변경될 때 호출
                 if (newValue != null) {
                     onModelSelectionChanged(newValue.toString());
@@ -95,6 +102,64 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
             getFieldEditorParent());
         addField(temperatureEditor);
         
+        // 요청 제한 시간 (초, 0이면 제한 없음)
+        connectTimeoutEditor = new StringFieldEditor(
+            PreferenceConstants.CONNECT_TIMEOUT,
+            "연결 제한 시간 (초):",
+            getFieldEditorParent());
+        addField(connectTimeoutEditor);
+        firstByteTimeoutEditor = new StringFieldEditor(
+            PreferenceConstants.FIRST_BYTE_TIMEOUT,
+            "첫 응답 제한 시간 (초):",
+            getFieldEditorParent());
+        addField(firstByteTimeoutEditor);
+        idleTimeoutEditor = new StringFieldEditor(
+            PreferenceConstants.IDLE_TIMEOUT,
+            "응답 멈춤 제한 시간 (초):",
+            getFieldEditorParent());
+        addField(idleTimeoutEditor);
+        
+        // 헤징: 첫 응답이 p95보다 늦으면 같은 요청을 보조 모델에도 보냄
+        hedgeModelEditor = new StringFieldEditor(
+            PreferenceConstants.HEDGE_MODEL,
+            "헤징 보조 모델 ID (비우면 사용 안 함):",
+            getFieldEditorParent());
+        addField(hedgeModelEditor);
+        
+        // 응답 캐시: 같은 모델/설정/대화 컨텍스트의 요청은 저장된 답변을 그대로 사용
+        addField(new BooleanFieldEditor(
+            PreferenceConstants.RESPONSE_CACHE,
+            "Temperature 0인 같은 요청의 응답을 캐시에서 재사용 (끄면 항상 서버에 요청)",
+            getFieldEditorParent()));
+        IntegerFieldEditor cacheTtlEditor = new IntegerFieldEditor(
+            PreferenceConstants.RESPONSE_CACHE_TTL,
+            "캐시 만료 시간 (분, 0이면 만료 없음):",
+            getFieldEditorParent());
+        cacheTtlEditor.setValidRange(0, 60 * 24 * 365);
+        addField(cacheTtlEditor);
+        
+        // 마크다운 렌더링 위치 (느린 내장 브라우저에서는 Java 렌더링이 빠름)
+        addField(new BooleanFieldEditor(
+            PreferenceConstants.SERVER_SIDE_MARKDOWN,
+            "마크다운을 Java에서 렌더링 (브라우저의 marked.js 대신)",
+            getFieldEditorParent()));
+        
+        // 로그 (Error Log 뷰에 기록)
+        addField(new ComboFieldEditor(
+            PreferenceConstants.LOG_LEVEL,
+            "로그 레벨:",
+            new String[][] {
+                { "디버그", PluginLog.Level.DEBUG.name() },
+                { "정보", PluginLog.Level.INFO.name() },
+                { "경고", PluginLog.Level.WARN.name() },
+                { "오류", PluginLog.Level.ERROR.name() }
+            },
+            getFieldEditorParent()));
+        addField(new BooleanFieldEditor(
+            PreferenceConstants.LOG_PAYLOADS,
+            "요청/응답 본문도 기록 (디버그 레벨에서만, 프롬프트가 로그에 남음)",
+            getFieldEditorParent()));
+        
         // 초기 모델 선택에 따른 값 설정
         initializeFieldsFromCurrentModel();
     }
@@ -123,7 +188,6 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
      * @param selectedModelId 새로 선택된 모델 ID
      */
     private void onModelSelectionChanged(String selectedModelId) {
-        System.out.println("onModelSelectionChanged - selectedModelId: " + selectedModelId);
         ModelConfig selectedModel = modelManager.getModelById(selectedModelId);
         
         if (selectedModel != null) {
@@ -132,13 +196,12 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
             apiKeyEditor.setStringValue(selectedModel.getApiKey() != null ? selectedModel.getApiKey() : "");
             maxTokensEditor.setStringValue(String.valueOf(selectedModel.getMaxTokens()));
             temperatureEditor.setStringValue(String.valueOf(selectedModel.getTemperature()));
-            
-            System.out.println("모델 선택 변경됨: " + selectedModel.getDisplayName());
-            System.out.println("  - API URL: " + selectedModel.getApiUrl());
-            System.out.println("  - Max Tokens: " + selectedModel.getMaxTokens());
-            System.out.println("  - Temperature: " + selectedModel.getTemperature());
+            connectTimeoutEditor.setStringValue(String.valueOf(selectedModel.getConnectTimeout() / 1000));
+            firstByteTimeoutEditor.setStringValue(String.valueOf(selectedModel.getFirstByteTimeout() / 1000));
+            idleTimeoutEditor.setStringValue(String.valueOf(selectedModel.getIdleTimeout() / 1000));
+            hedgeModelEditor.setStringValue(selectedModel.getHedgeModelId());
         } else {
-            System.out.println("선택된 모델을 찾을 수 없습니다: " + selectedModelId);
+            PluginLog.warn("선택된 모델을 찾을 수 없습니다: " + selectedModelId);
         }
     }
     
@@ -175,7 +238,7 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
             IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(Activator.PLUGIN_ID);
             prefs.flush();
         } catch (Exception e) {
-            e.printStackTrace();
+            PluginLog.error("설정 저장 오류", e);
         }
         
         return result;
@@ -188,22 +251,9 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
         // Preference Store에서 현재 설정된 값을 가져오기
         IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(Activator.PLUGIN_ID);
         String selectedModelId = prefs.get(PreferenceConstants.DEFAULT_MODEL, "ki-assist-custom");
-        System.out.println("updateSelectedModelConfig - selectedModelId: " + selectedModelId);
         ModelConfig selectedModel = modelManager.getModelById(selectedModelId);
         
         if (selectedModel != null) {
-            // 업데이트 전 현재 값들 출력
-            System.out.println("업데이트 전 모델 상태:");
-            System.out.println("  - API URL: " + selectedModel.getApiUrl());
-            System.out.println("  - API Key: " + selectedModel.getApiKey());
-            
-            // 사용자가 입력한 값들 출력
-            System.out.println("사용자 입력 값들:");
-            System.out.println("  - API URL: " + apiUrlEditor.getStringValue());
-            System.out.println("  - API Key: " + apiKeyEditor.getStringValue());
-            System.out.println("  - Max Tokens: " + maxTokensEditor.getStringValue());
-            System.out.println("  - Temperature: " + temperatureEditor.getStringValue());
-            
             // 사용자가 입력한 값들로 모델 설정 업데이트
             selectedModel.setApiUrl(apiUrlEditor.getStringValue());
             selectedModel.setApiKey(apiKeyEditor.getStringValue());
@@ -220,17 +270,30 @@ public class KIAssistPreferencePage extends FieldEditorPreferencePage
                 selectedModel.setTemperature(0.7); // 기본값
             }
             
-            // 업데이트 후 값들 출력
-            System.out.println("업데이트 후 모델 상태:");
-            System.out.println("  - API URL: " + selectedModel.getApiUrl());
-            System.out.println("  - API Key: " + selectedModel.getApiKey());
-            System.out.println("  - Max Tokens: " + selectedModel.getMaxTokens());
-            System.out.println("  - Temperature: " + selectedModel.getTemperature());
+            selectedModel.setConnectTimeout(parseTimeoutSeconds(
+                connectTimeoutEditor.getStringValue(), ModelConfig.DEFAULT_CONNECT_TIMEOUT_MS));
+            selectedModel.setFirstByteTimeout(parseTimeoutSeconds(
+                firstByteTimeoutEditor.getStringValue(), ModelConfig.DEFAULT_FIRST_BYTE_TIMEOUT_MS));
+            selectedModel.setIdleTimeout(parseTimeoutSeconds(
+                idleTimeoutEditor.getStringValue(), ModelConfig.DEFAULT_IDLE_TIMEOUT_MS));
+            selectedModel.setHedgeModelId(hedgeModelEditor.getStringValue());
             
             // 모델 설정 저장
             modelManager.updateModel(selectedModel);
             
-            System.out.println("모델 설정이 업데이트되었습니다: " + selectedModel.getDisplayName());
+            PluginLog.info("모델 설정이 업데이트되었습니다: " + selectedModel.getDisplayName());
+        }
+    }
+    
+    /**
+     * 초 단위 입력을 ms로 변환 (잘못된 값이면 기본값)
+     */
+    private static int parseTimeoutSeconds(String value, int defaultMillis) {
+        try {
+            int seconds = Integer.parseInt(value.trim());
+            return seconds >= 0 && seconds <= Integer.MAX_VALUE / 1000 ? seconds * 1000 : defaultMillis;
+        } catch (NumberFormatException e) {
+            return defaultMillis;
         }
     }
-}
\ No newline at end of file
+}
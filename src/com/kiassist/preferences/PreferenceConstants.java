@@ -13,6 +13,18 @@ public class PreferenceConstants {
     public static final String MAX_TOKENS = "kiassist.max.tokens";
     public static final String TEMPERATURE = "kiassist.temperature";
     
+    // 요청 제한 시간 (초, 선택한 모델 설정에 반영)
+    public static final String CONNECT_TIMEOUT = "kiassist.timeout.connect";
+    public static final String FIRST_BYTE_TIMEOUT = "kiassist.timeout.firstbyte";
+    public static final String IDLE_TIMEOUT = "kiassist.timeout.idle";
+    
+    // 헤징 보조 모델 ID (선택한 모델 설정에 반영, 비우면 사용 안 함)
+    public static final String HEDGE_MODEL = "kiassist.hedge.model";
+    
+    // 응답 캐시 (끄면 항상 서버에 요청, 만료 시간은 분 단위, 0이면 만료 없음)
+    public static final String RESPONSE_CACHE = "kiassist.cache.enabled";
+    public static final String RESPONSE_CACHE_TTL = "kiassist.cache.ttl";
+    
     // 커스텀 모델 설정
     public static final String CUSTOM_API_URL = "kiassist.custom.api.url";
     public static final String CUSTOM_API_KEY = "kiassist.custom.api.key";
@@ -21,6 +33,13 @@ public class PreferenceConstants {
     // 시스템 설정
     public static final String SETTINGS_VERSION = "kiassist.settings.version";
     
+    // 화면 설정
+    public static final String SERVER_SIDE_MARKDOWN = "kiassist.markdown.serverside"; // Java에서 마크다운 렌더링
+    
+    // 로그 설정
+    public static final String LOG_LEVEL = "kiassist.log.level";       // DEBUG, INFO, WARN, ERROR
+    public static final String LOG_PAYLOADS = "kiassist.log.payloads"; // 요청/응답 본문 기록 (DEBUG에서만)
+    
     // 동적 모델 관리
     public static final String MODEL_CONFIGS = "kiassist.model.configs"; // JSON 형태로 저장
     
@@ -30,4 +49,6 @@ public class PreferenceConstants {
     public static final String DEFAULT_MAX_TOKENS = "1000";
     public static final String DEFAULT_TEMPERATURE = "0.7";
     public static final String DEFAULT_CUSTOM_MODEL = "ki-assist-custom";
+    public static final String DEFAULT_LOG_LEVEL = "INFO";
+    public static final int DEFAULT_RESPONSE_CACHE_TTL = 60;
 }
\ No newline at end of file
@@ -5,10 +5,13 @@
 package com.kiassist.preferences;
 
 import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
+import org.eclipse.core.runtime.preferences.DefaultScope;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 
 import com.kiassist.Activator;
+import com.kiassist.core.ModelConfig;
+import com.kiassist.core.PluginLog;
 
 public class PreferenceInitializer extends AbstractPreferenceInitializer {
 
@@ -24,7 +27,17 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
         prefs.put(PreferenceConstants.CUSTOM_API_URL, "http://114.207.145.84:8000/chat");
         prefs.put(PreferenceConstants.CUSTOM_API_KEY, "API_KEY");
         
-        System.out.println("initializeDefaultPreferences : "+prefs);
+        // 로그 설정은 사용자가 바꾼 값을 덮어쓰지 않도록 기본 범위에 둠
+        IEclipsePreferences defaults = DefaultScope.INSTANCE.getNode(Activator.PLUGIN_ID);
+        defaults.put(PreferenceConstants.LOG_LEVEL, PreferenceConstants.DEFAULT_LOG_LEVEL);
+        defaults.putBoolean(PreferenceConstants.LOG_PAYLOADS, false);
+        defaults.putInt(PreferenceConstants.CONNECT_TIMEOUT, ModelConfig.DEFAULT_CONNECT_TIMEOUT_MS / 1000);
+        defaults.putInt(PreferenceConstants.FIRST_BYTE_TIMEOUT, ModelConfig.DEFAULT_FIRST_BYTE_TIMEOUT_MS / 1000);
+        defaults.putInt(PreferenceConstants.IDLE_TIMEOUT, ModelConfig.DEFAULT_IDLE_TIMEOUT_MS / 1000);
+        defaults.putBoolean(PreferenceConstants.RESPONSE_CACHE, true);
+        defaults.putInt(PreferenceConstants.RESPONSE_CACHE_TTL, PreferenceConstants.DEFAULT_RESPONSE_CACHE_TTL);
+        
+        PluginLog.debug("기본 설정값 초기화");
         
         // API 키는 기본값 없음 (사용자가 직접 입력해야 함)
     }
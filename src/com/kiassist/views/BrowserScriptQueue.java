@@ -0,0 +1,83 @@
+package com.kiassist.views;
+
+import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * 브라우저 스크립트 실행 큐
+ * Browser.execute는 호출마다 네이티브 브라우저로 동기 왕복하므로,
+ * 한 번의 UI 이벤트 처리 동안 쌓인 스크립트 조각을 모아 execute 한 번으로 실행한다.
+ * 어느 스레드에서든 enqueue할 수 있고, 실행은 항상 UI 스레드에서 일어난다.
+ * 페이지 로드가 끝나기 전(setReady(true) 전)에 들어온 스크립트는 보관했다가 한꺼번에 실행한다.
+ * JDK 7 호환
+ */
+public class BrowserScriptQueue {
+
+    private final Browser browser;
+    private final Display display;
+    private final StringBuilder pending = new StringBuilder();
+    private boolean flushScheduled; // pending 잠금으로 보호
+    private boolean ready;          // pending 잠금으로 보호
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    public BrowserScriptQueue(Browser browser) {
+        this.browser = browser;
+        this.display = browser.getDisplay();
+    }
+
+    /**
+     * 스크립트 조각 추가 (다음 UI 루프에서 모아서 실행)
+     */
+    public void enqueue(String script) {
+        if (script == null || script.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            // 한 조각의 오류가 같은 묶음의 나머지 조각 실행을 막지 않도록 감쌈
+            pending.append("try {").append(script).append("\n} catch (e) { debugLog('스크립트 오류: ' + e.message); }\n");
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * 페이지 준비 여부 설정 (true가 되면 보관 중인 스크립트 실행)
+     */
+    public void setReady(boolean ready) {
+        synchronized (pending) {
+            this.ready = ready;
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled || !ready || pending.length() == 0 || display.isDisposed()) {
+            return;
+        }
+        flushScheduled = true;
+        display.asyncExec(flushTask);
+    }
+
+    /**
+     * 모인 스크립트를 한 번의 execute로 실행 (UI 스레드)
+     */
+    private void flush() {
+        String script;
+        synchronized (pending) {
+            flushScheduled = false;
+            if (!ready || pending.length() == 0) {
+                return;
+            }
+            script = pending.toString();
+            pending.setLength(0);
+        }
+        if (!browser.isDisposed()) {
+            browser.execute(script);
+        }
+    }
+}
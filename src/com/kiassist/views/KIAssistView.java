@@ -1,10 +1,19 @@
 package com.kiassist.views;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.browser.BrowserFunction;
+import org.eclipse.swt.browser.ProgressAdapter;
+import org.eclipse.swt.browser.ProgressEvent;
 import org.eclipse.swt.events.KeyAdapter;
 import org.eclipse.swt.events.KeyEvent;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -14,17 +23,33 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Text;
+import org.eclipse.ui.dialogs.ListSelectionDialog;
 import org.eclipse.ui.part.ViewPart;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.window.Window;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 
+import com.kiassist.Activator;
 import com.kiassist.core.LLMClient;
 import com.kiassist.core.ChatMessage;
+import com.kiassist.core.ChatPageInstaller;
 import com.kiassist.core.ChatHistory;
+import com.kiassist.core.ChatJournal;
+import com.kiassist.core.ChatStreamListener;
+import com.kiassist.core.ContextWindowBuilder;
 import com.kiassist.core.MarkdownToHtmlConverter;
 import com.kiassist.core.ModelConfigManager;
 import com.kiassist.core.ModelConfig;
+import com.kiassist.core.PluginLog;
+import com.kiassist.core.RequestExecutor;
+import com.kiassist.preferences.PreferenceConstants;
 
 /**
  * KI Assist Chat View - JDK 7 호환
@@ -32,23 +57,45 @@ import com.kiassist.core.ModelConfig;
 public class KIAssistView extends ViewPart {
 
     public static final String ID = "com.kiassist.views.KIAssistView";
+    
+    private static final String SEND_BUTTON_TEXT = "전송\n(Ctrl+Enter)";
+    // 브라우저가 한 번에 다시 불러올 수 있는 최대 메시지 수
+    private static final int MAX_LOAD_MESSAGES = 100;
+    // 비교 모드에서 동시에 보낼 최대 모델 수 (공유 작업 스레드 수 이하여야 모두 동시에 실행됨)
+    private static final int MAX_COMPARE_MODELS = 4;
 
     // UI 컴포넌트
     private Combo modelCombo;
     private Browser chatBrowser;
+    private BrowserScriptQueue scriptQueue;
     private Text inputText;
     private Button sendButton;
+    private Button stopButton;
     private Button clearButton;
+    private Button statsButton;
+    private Button compareButton;
+    private LatencyStatsPanel statsPanel;
     
     // 채팅 관련
     private ChatHistory chatHistory;
+    private ChatJournal sessionJournal; // 이 뷰가 쓰는 세션 (닫을 때 반납)
     private LLMClient llmClient;
     private MarkdownToHtmlConverter htmlConverter;
     private boolean isFirstLoad = true;
+    private IPropertyChangeListener preferenceListener;
+    
+    // 진행 중인 요청 (UI 스레드에서만 접근, 비교 모드에서는 모델마다 하나씩)
+    private final List<Future<Void>> activeRequests = new ArrayList<Future<Void>>();
+    private Object activeRequestToken;
+    private StreamingMessage activeStream;
+    private CompareGroup activeCompare;
+    private int streamSequence;
+    
+    // 비교 모드에서 선택한 모델 ID
+    private final List<String> compareModelIds = new ArrayList<String>();
 
     @Override
     public void createPartControl(Composite parent) {
-    	System.out.println("createPartControl");
         // 메인 레이아웃
         parent.setLayout(new GridLayout(1, false));
         
@@ -56,10 +103,17 @@ public class KIAssistView extends ViewPart {
         chatHistory = new ChatHistory();
         llmClient = new LLMClient();
         htmlConverter = new MarkdownToHtmlConverter();
+        watchMarkdownPreference();
+        
+        // 저장된 대화 복원 (이후 메시지는 세션 저널에 기록됨)
+        restoreSession();
 
         // 상단: 모델 선택 영역
         createModelSelectionArea(parent);
         
+        // 요청 지연 통계 (통계 버튼으로 표시)
+        createStatsArea(parent);
+        
         // 중간: 채팅 브라우저 영역
         createChatBrowserArea(parent);
         
@@ -72,7 +126,7 @@ public class KIAssistView extends ViewPart {
 
     private void createModelSelectionArea(Composite parent) {
         Composite modelArea = new Composite(parent, SWT.NONE);
-        modelArea.setLayout(new GridLayout(3, false));
+        modelArea.setLayout(new GridLayout(5, false));
         modelArea.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
         
         Label modelLabel = new Label(modelArea, SWT.NONE);
@@ -98,43 +152,147 @@ public class KIAssistView extends ViewPart {
                 clearChat();
             }
         });
+        
+        compareButton = new Button(modelArea, SWT.TOGGLE);
+        compareButton.setText("비교");
+        compareButton.setToolTipText("같은 질문을 여러 모델에 동시에 보내 답변 비교");
+        compareButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                setCompareMode(compareButton.getSelection());
+            }
+        });
+        
+        statsButton = new Button(modelArea, SWT.TOGGLE);
+        statsButton.setText("통계");
+        statsButton.setToolTipText("모델별 응답 지연 통계");
+        statsButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                setStatsVisible(statsButton.getSelection());
+            }
+        });
+    }
+
+    /**
+     * 비교 모드 전환 (켤 때 비교할 모델을 고름, 두 개 미만이면 취소)
+     */
+    private void setCompareMode(boolean enabled) {
+        if (enabled) {
+            enabled = selectCompareModels();
+        }
+        compareButton.setSelection(enabled);
+        modelCombo.setEnabled(!enabled);
+        compareButton.setToolTipText(enabled
+            ? "비교 중: " + joinDisplayNames(getCompareModels())
+            : "같은 질문을 여러 모델에 동시에 보내 답변 비교");
+    }
+
+    private boolean selectCompareModels() {
+        List<ModelConfig> models = ModelConfigManager.getInstance().getEnabledModels();
+        if (models.size() < 2) {
+            MessageDialog.openInformation(getSite().getShell(), "모델 비교",
+                "비교하려면 사용 중인 모델이 두 개 이상 있어야 합니다.");
+            return false;
+        }
+        
+        ListSelectionDialog dialog = new ListSelectionDialog(getSite().getShell(), models,
+            ArrayContentProvider.getInstance(), new LabelProvider() {
+                @Override
+                public String getText(Object element) {
+                    return ((ModelConfig) element).getDisplayName();
+                }
+            }, "답변을 비교할 모델을 선택하세요. (2~" + MAX_COMPARE_MODELS + "개)");
+        dialog.setTitle("모델 비교");
+        List<ModelConfig> previous = getCompareModels();
+        if (previous.isEmpty()) {
+            previous = models.subList(0, Math.min(2, models.size()));
+        }
+        dialog.setInitialElementSelections(previous);
+        if (dialog.open() != Window.OK) {
+            return false;
+        }
+        
+        Object[] selected = dialog.getResult();
+        if (selected.length < 2 || selected.length > MAX_COMPARE_MODELS) {
+            MessageDialog.openWarning(getSite().getShell(), "모델 비교",
+                "모델을 2~" + MAX_COMPARE_MODELS + "개 선택해주세요.");
+            return false;
+        }
+        compareModelIds.clear();
+        for (Object model : selected) {
+            compareModelIds.add(((ModelConfig) model).getId());
+        }
+        return true;
+    }
+
+    /**
+     * 비교할 모델 중 아직 사용 중인 모델 (설정에서 지우거나 끈 모델은 제외)
+     */
+    private List<ModelConfig> getCompareModels() {
+        List<ModelConfig> models = new ArrayList<ModelConfig>();
+        ModelConfigManager modelManager = ModelConfigManager.getInstance();
+        for (String id : compareModelIds) {
+            ModelConfig model = modelManager.getModelById(id);
+            if (model != null && model.isEnabled()) {
+                models.add(model);
+            }
+        }
+        return models;
+    }
+
+    private static String joinDisplayNames(List<ModelConfig> models) {
+        StringBuilder names = new StringBuilder();
+        for (ModelConfig model : models) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(model.getDisplayName());
+        }
+        return names.toString();
+    }
+
+    private void createStatsArea(Composite parent) {
+        statsPanel = new LatencyStatsPanel(parent);
+        GridData statsData = new GridData(SWT.FILL, SWT.CENTER, true, false);
+        statsData.exclude = true;
+        statsPanel.getControl().setLayoutData(statsData);
+        statsPanel.getControl().setVisible(false);
+    }
+
+    private void setStatsVisible(boolean visible) {
+        Composite control = statsPanel.getControl();
+        ((GridData) control.getLayoutData()).exclude = !visible;
+        control.setVisible(visible);
+        if (visible) {
+            statsPanel.refresh();
+        }
+        control.getParent().layout(true, true);
     }
 
     private void createChatBrowserArea(Composite parent) {
         chatBrowser = new Browser(parent, SWT.BORDER);
+        scriptQueue = new BrowserScriptQueue(chatBrowser);
         
         GridData browserData = new GridData(SWT.FILL, SWT.FILL, true, true);
         browserData.heightHint = 400;
         chatBrowser.setLayoutData(browserData);
         
-        // 브라우저 엔진 정보를 디버그 로그에 출력
-        String browserType = chatBrowser.getBrowserType();
-        System.out.println("SWT Browser Engine: " + browserType);
-        
-        // 버전 정보도 함께 출력
-        
-        try {
-            // JavaScript를 통해 IE 버전 정보 얻기
-            Object userAgent = chatBrowser.evaluate("return navigator.userAgent;");
-            if (userAgent != null) {
-                System.out.println("IE User Agent: " + userAgent.toString());
-            }
-            
-            Object appVersion = chatBrowser.evaluate("return navigator.appVersion;");
-            if (appVersion != null) {
-                System.out.println("IE App Version: " + appVersion.toString());
-            }
-            
-            System.out.println("userAgent : "+userAgent + ", appVersion : " + appVersion);
-        } catch (Exception e) {
-            System.out.println("Failed to get IE version info: " + e.getMessage());
+        // 브라우저 엔진 정보를 디버그 로그에 출력 (evaluate는 동기 호출이라 디버그일 때만)
+        if (PluginLog.isDebugEnabled()) {
+            try {
+                // JavaScript를 통해 IE 버전 정보 얻기
+                Object userAgent = chatBrowser.evaluate("return navigator.userAgent;");
+                PluginLog.debug("SWT Browser Engine: " + chatBrowser.getBrowserType() + ", userAgent: " + userAgent);
+            } catch (Exception e) {
+                PluginLog.debug("브라우저 버전 정보를 가져오지 못했습니다: " + e.getMessage());
+            }
         }
-        
     }
 
     private void createInputArea(Composite parent) {
         Composite inputArea = new Composite(parent, SWT.NONE);
-        inputArea.setLayout(new GridLayout(2, false));
+        inputArea.setLayout(new GridLayout(3, false));
         inputArea.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
         
         // 멀티라인 입력창
@@ -149,7 +307,6 @@ public class KIAssistView extends ViewPart {
         inputText.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-            	System.out.println("e.keyCode : "+e.keyCode + ", SWT.CR : " + SWT.CR + ", e.stateMask : " + e.stateMask + ", SWT.CTRL : " +SWT.CTRL);
                 // Ctrl+Enter 조합 확인
                 if (( e.keyCode == 13) && (e.stateMask == 4194304)) {
                     e.doit = false; // 기본 동작 방지 (줄바꿈 방지)
@@ -161,7 +318,7 @@ public class KIAssistView extends ViewPart {
         
         // 전송 버튼
         sendButton = new Button(inputArea, SWT.PUSH);
-        sendButton.setText("전송\n(Ctrl+Enter)");
+        sendButton.setText(SEND_BUTTON_TEXT);
         sendButton.setLayoutData(new GridData(SWT.FILL, SWT.FILL, false, false));
         sendButton.addSelectionListener(new SelectionAdapter() {
             @Override
@@ -169,11 +326,112 @@ public class KIAssistView extends ViewPart {
                 sendMessage();
             }
         });
+        
+        // 생성 중지 버튼
+        stopButton = new Button(inputArea, SWT.PUSH);
+        stopButton.setText("생성\n중지");
+        stopButton.setLayoutData(new GridData(SWT.FILL, SWT.FILL, false, false));
+        stopButton.setEnabled(false);
+        stopButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                stopGenerating();
+            }
+        });
+    }
+
+    /**
+     * 마크다운 렌더링 위치 설정을 적용하고, 바뀌면 대화를 다시 그림
+     */
+    private void watchMarkdownPreference() {
+        final IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+        htmlConverter.setServerSideMarkdown(store.getBoolean(PreferenceConstants.SERVER_SIDE_MARKDOWN));
+        preferenceListener = new IPropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent event) {
+                if (!PreferenceConstants.SERVER_SIDE_MARKDOWN.equals(event.getProperty())) {
+                    return;
+                }
+                htmlConverter.setServerSideMarkdown(store.getBoolean(PreferenceConstants.SERVER_SIDE_MARKDOWN));
+                if (scriptQueue != null && !chatHistory.isEmpty()) {
+                    scriptQueue.enqueue(htmlConverter.getAllMessagesScript(chatHistory));
+                }
+            }
+        };
+        store.addPropertyChangeListener(preferenceListener);
+    }
+
+    /**
+     * 뷰포트가 DOM에서 잘라낸 메시지를 다시 그릴 때 호출하는 브라우저 함수
+     * kiLoadMessages(from, to) -> [from, to) 범위 메시지의 JSON 배열 문자열
+     */
+    private void installMessageLoader() {
+        new BrowserFunction(chatBrowser, "kiLoadMessages") {
+            @Override
+            public Object function(Object[] arguments) {
+                if (arguments.length < 2 || !(arguments[0] instanceof Number) || !(arguments[1] instanceof Number)) {
+                    return null;
+                }
+                long from = ((Number) arguments[0]).longValue();
+                long to = Math.min(((Number) arguments[1]).longValue(), from + MAX_LOAD_MESSAGES);
+                return htmlConverter.getMessagesJson(chatHistory, from, to);
+            }
+        };
     }
 
     private void loadInitialChatHTML() {
-        String initialHTML = htmlConverter.createChatPageHTML();
-        chatBrowser.setText(initialHTML);
+        installMessageLoader();
+        
+        // 복원된 대화를 가장 먼저 그리도록 큐에 넣어 두고, 페이지 로드가 끝나면 실행
+        // (로드 중에 보낸 메시지의 갱신은 그 뒤에 이어서 실행됨)
+        if (!chatHistory.isEmpty()) {
+            scriptQueue.enqueue(htmlConverter.getAllMessagesScript(chatHistory));
+        }
+        chatBrowser.addProgressListener(new ProgressAdapter() {
+            @Override
+            public void completed(ProgressEvent event) {
+                if (isFirstLoad) {
+                    isFirstLoad = false;
+                    scriptQueue.setReady(true);
+                }
+            }
+        });
+        
+        // 상태 디렉터리에 설치한 정적 페이지를 URL로 열어 브라우저가 스크립트를 캐시하게 함
+        File page = installChatPage();
+        if (page != null) {
+            chatBrowser.setUrl(page.toURI().toString());
+        } else {
+            String initialHTML = htmlConverter.createChatPageHTML();
+            chatBrowser.setText(initialHTML);
+        }
+    }
+
+    /**
+     * 채팅 페이지와 web 자원을 플러그인 상태 디렉터리에 설치
+     * @return index.html 파일, 실패하면 null (인라인 페이지로 대체)
+     */
+    private File installChatPage() {
+        try {
+            File webDir = new File(Activator.getDefault().getStateLocation().toFile(), "web");
+            return ChatPageInstaller.install(webDir, htmlConverter);
+        } catch (Exception e) {
+            PluginLog.warn("채팅 페이지 설치 오류 - 인라인 페이지를 사용합니다.", e);
+            return null;
+        }
+    }
+
+    /**
+     * 이 뷰의 세션 저널을 열어 최근 대화 복원
+     */
+    private void restoreSession() {
+        String sessionId = getViewSite().getSecondaryId();
+        try {
+            sessionJournal = Activator.getDefault().getSessionStore().openSession(sessionId);
+            chatHistory.restoreFrom(sessionJournal);
+        } catch (IOException e) {
+            PluginLog.warn("채팅 세션 복원 오류", e);
+        }
     }
 
     private void sendMessage() {
@@ -187,6 +445,11 @@ public class KIAssistView extends ViewPart {
                 "메시지를 입력해주세요.");
             return;
         }
+        
+        if (compareButton.getSelection()) {
+            sendCompareMessage(question);
+            return;
+        }
 
         // 사용자 메시지 추가
         ChatMessage userMessage = new ChatMessage(ChatMessage.Type.USER, question);
@@ -200,50 +463,474 @@ public class KIAssistView extends ViewPart {
         
         // 타이핑 인디케이터 표시
         showTypingIndicator();
+        
+        final Display display = getSite().getShell().getDisplay();
+        final StreamingMessage stream = new StreamingMessage(display, "stream-" + (++streamSequence));
+        final Object requestToken = new Object();
+        activeRequestToken = requestToken;
+        activeStream = stream;
+        // 작업 스레드에는 UI 스레드가 계속 변경하는 히스토리 대신 복사본을 넘김
+        final ChatHistory requestHistory = chatHistory.snapshot();
 
-        // 백그라운드에서 LLM 호출
-        Thread worker = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    final String response = llmClient.sendChatMessage(chatHistory, selectedModel);
-                    
-                    // UI 업데이트는 메인 스레드에서
-                    getSite().getShell().getDisplay().asyncExec(new Runnable() {
-                        @Override
-                        public void run() {
-                            // AI 응답 메시지 추가
-                            ChatMessage aiMessage = new ChatMessage(ChatMessage.Type.ASSISTANT, response);
-                            chatHistory.addMessage(aiMessage);
-                            updateChatDisplay();
-                            
-                            // 버튼 재활성화
-                            sendButton.setEnabled(true);
-                            sendButton.setText("전송\n(Ctrl+Enter)");
-                            inputText.setFocus();
-                        }
-                    });
-                    
-                } catch (final Exception ex) {
-                    getSite().getShell().getDisplay().asyncExec(new Runnable() {
-                        @Override
-                        public void run() {
-                            // 오류 메시지 추가
-                            ChatMessage errorMessage = new ChatMessage(
-                                ChatMessage.Type.SYSTEM, 
-                                "오류 발생: " + ex.getMessage());
-                            chatHistory.addMessage(errorMessage);
-                            updateChatDisplay();
-                            
-                            // 버튼 재활성화
-                            sendButton.setEnabled(true);
-                            sendButton.setText("전송\n(Ctrl+Enter)");
+        // 공유 작업 스레드 풀에서 LLM 호출
+        RequestExecutor executor = Activator.getDefault().getRequestExecutor();
+        try {
+            activeRequests.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        final String response = llmClient.sendChatMessageStream(requestHistory, selectedModel, stream);
+                        
+                        // UI 업데이트는 메인 스레드에서
+                        display.asyncExec(new Runnable() {
+                            @Override
+                            public void run() {
+                                // 중지되었거나 뷰가 닫힌 요청의 결과는 버림
+                                if (!isActiveRequest(requestToken)) {
+                                    return;
+                                }
+                                
+                                // AI 응답 메시지 추가 (스트리밍으로 이미 그려졌으면 마무리만)
+                                ChatMessage aiMessage = new ChatMessage(ChatMessage.Type.ASSISTANT, response);
+                                long sequence = chatHistory.getNextSequence();
+                                chatHistory.addMessage(aiMessage);
+                                if (!stream.finish(sequence, aiMessage)) {
+                                    updateChatDisplay();
+                                }
+                                
+                                // 버튼 재활성화
+                                finishRequest();
+                                inputText.setFocus();
+                            }
+                        });
+                        
+                    } catch (final Exception ex) {
+                        display.asyncExec(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (!isActiveRequest(requestToken)) {
+                                    return;
+                                }
+                                
+                                // 오류 메시지 추가 (받은 데까지는 그대로 둠)
+                                stream.finish(-1);
+                                ChatMessage errorMessage = new ChatMessage(
+                                    ChatMessage.Type.SYSTEM, 
+                                    "오류 발생: " + ex.getMessage());
+                                chatHistory.addMessage(errorMessage);
+                                updateChatDisplay();
+                                
+                                // 버튼 재활성화
+                                finishRequest();
+                            }
+                        });
+                    }
+                    return null;
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            ChatMessage errorMessage = new ChatMessage(
+                ChatMessage.Type.SYSTEM, 
+                "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            chatHistory.addMessage(errorMessage);
+            updateChatDisplay();
+            finishRequest();
+            return;
+        }
+        
+        stopButton.setEnabled(true);
+        int queueDepth = executor.getQueueDepth();
+        if (queueDepth > 0) {
+            sendButton.setText("대기 중 (" + queueDepth + ")...");
+        }
+    }
+
+    /**
+     * 같은 대화 컨텍스트와 질문을 비교할 모델마다 동시에 보내고, 답변을 열로 나란히 표시
+     * 모든 모델이 같은 시점에 시작하므로 전체 대기 시간은 가장 느린 모델의 응답 시간이다.
+     * 질문은 대화 기록에 추가하고, 답변은 모두 끝나면 모델 이름을 붙여 한 메시지로 저장한다.
+     */
+    private void sendCompareMessage(String question) {
+        List<ModelConfig> models = getCompareModels();
+        if (models.size() < 2) {
+            MessageDialog.openWarning(getSite().getShell(), "모델 비교",
+                "비교할 모델이 두 개 이상 필요합니다. 비교 버튼을 다시 눌러 모델을 선택해주세요.");
+            setCompareMode(false);
+            return;
+        }
+        
+        // 질문은 일반 전송처럼 대화 기록에 추가하고, 답변은 모두 끝난 뒤 모델별로 묶어 저장
+        ChatMessage userMessage = new ChatMessage(ChatMessage.Type.USER, question);
+        chatHistory.addMessage(userMessage);
+        updateChatDisplay();
+        final ChatHistory requestHistory = chatHistory.snapshot();
+        
+        inputText.setText("");
+        sendButton.setEnabled(false);
+        sendButton.setText("비교 중...");
+        
+        String groupId = "compare-" + (++streamSequence);
+        List<String> labels = new ArrayList<String>();
+        for (ModelConfig model : models) {
+            labels.add(model.getDisplayName());
+        }
+        scriptQueue.enqueue(htmlConverter.getBeginCompareScript(groupId, labels, userMessage.getFormattedTime()));
+        
+        Display display = getSite().getShell().getDisplay();
+        Object requestToken = new Object();
+        activeRequestToken = requestToken;
+        CompareGroup group = new CompareGroup(groupId, requestToken);
+        activeCompare = group;
+        for (int i = 0; i < models.size(); i++) {
+            group.columns.add(new CompareColumn(display, group, i, models.get(i), requestHistory));
+        }
+        
+        RequestExecutor executor = Activator.getDefault().getRequestExecutor();
+        for (CompareColumn column : group.columns) {
+            try {
+                activeRequests.add(executor.submit(column));
+            } catch (RejectedExecutionException e) {
+                column.complete(null, "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+        }
+        if (activeCompare == group) {
+            stopButton.setEnabled(true);
+        }
+    }
+
+    /**
+     * 비교 요청 하나 (UI 스레드에서만 접근)
+     */
+    private class CompareGroup {
+        final String groupId;
+        final Object requestToken;
+        final List<CompareColumn> columns = new ArrayList<CompareColumn>();
+        int finishedColumns;
+
+        CompareGroup(String groupId, Object requestToken) {
+            this.groupId = groupId;
+            this.requestToken = requestToken;
+        }
+
+        /**
+         * 열 하나가 끝남, 모두 끝나면 요청 종료
+         */
+        void columnFinished() {
+            if (++finishedColumns < columns.size()) {
+                return;
+            }
+            scriptQueue.enqueue(htmlConverter.getFinishCompareScript(groupId, saveResult()));
+            finishRequest();
+            inputText.setFocus();
+        }
+
+        /**
+         * 끝나지 않은 열을 모두 중지 상태로 마무리
+         */
+        void stop() {
+            for (CompareColumn column : columns) {
+                if (!column.completed) {
+                    column.completed = true;
+                    column.stream.finish(-1);
+                    column.note = "중지됨";
+                    column.showStats(column.note);
+                }
+            }
+            scriptQueue.enqueue(htmlConverter.getFinishCompareScript(groupId, saveResult()));
+        }
+
+        /**
+         * 모델별 답변을 라벨과 함께 하나의 메시지로 대화 기록에 저장
+         * (다음 질문의 컨텍스트와 세션 복원, 화면 밖에서 다시 그릴 때 사용)
+         * @return 저장한 메시지 번호, 받은 답변이 하나도 없으면 -1
+         */
+        private long saveResult() {
+            StringBuilder result = new StringBuilder();
+            boolean answered = false;
+            for (CompareColumn column : columns) {
+                String text = column.getText();
+                answered |= !text.isEmpty();
+                if (result.length() > 0) {
+                    result.append("\n\n---\n\n");
+                }
+                result.append("**").append(column.model.getDisplayName()).append("**\n\n");
+                result.append(text);
+                if (column.note != null) {
+                    result.append(text.isEmpty() ? "" : "\n\n").append("_(").append(column.note).append(")_");
+                }
+            }
+            if (!answered) {
+                return -1;
+            }
+            long sequence = chatHistory.getNextSequence();
+            chatHistory.addMessage(new ChatMessage(ChatMessage.Type.ASSISTANT, result.toString(), "모델 비교"));
+            return sequence;
+        }
+    }
+
+    /**
+     * 비교 모드의 모델 하나: 작업 스레드에서 스트리밍으로 호출하고 자기 열에 표시
+     * 지연 시간은 작업 스레드에서 실행을 시작한 시점부터 잰다. (대기열 시간 제외)
+     */
+    private class CompareColumn implements Callable<Void>, ChatStreamListener {
+        private final Display display;
+        private final CompareGroup group;
+        final ModelConfig model;
+        private final ChatHistory requestHistory;
+        private final String columnId;
+        final StreamingMessage stream;
+        private final StringBuilder received = new StringBuilder(); // 중지/실패 시 저장할 받은 부분
+        private volatile long startedAt;
+        private volatile long firstDeltaAt;
+        // UI 스레드에서만 접근
+        boolean completed;
+        String answer;
+        String note; // 답변 대신 또는 뒤에 저장할 상태 (오류, 중지)
+
+        CompareColumn(Display display, CompareGroup group, int index, ModelConfig model, ChatHistory requestHistory) {
+            this.display = display;
+            this.group = group;
+            this.model = model;
+            this.requestHistory = requestHistory;
+            this.columnId = MarkdownToHtmlConverter.getCompareColumnId(group.groupId, index);
+            // 열은 beginCompare에서 이미 만들어졌으므로 조각만 이어 붙임
+            this.stream = new StreamingMessage(display, columnId, true);
+        }
+
+        @Override
+        public Void call() {
+            startedAt = System.nanoTime();
+            try {
+                final String response = llmClient.sendChatMessageStream(requestHistory, model.getId(), this);
+                final long finishedAt = System.nanoTime();
+                display.asyncExec(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (firstDeltaAt == 0) {
+                            // 스트리밍하지 않은 응답은 한 번에 표시
+                            stream.onDelta(response);
                         }
-                    });
+                        complete(response, formatStats(response, finishedAt));
+                    }
+                });
+            } catch (final Exception ex) {
+                display.asyncExec(new Runnable() {
+                    @Override
+                    public void run() {
+                        complete(null, "오류: " + ex.getMessage());
+                    }
+                });
+            }
+            return null;
+        }
+
+        @Override
+        public void onDelta(String delta) {
+            if (firstDeltaAt == 0) {
+                firstDeltaAt = System.nanoTime();
+            }
+            synchronized (received) {
+                received.append(delta);
+            }
+            stream.onDelta(delta);
+        }
+
+        /**
+         * 저장할 답변 (완료되지 않았으면 받은 데까지)
+         */
+        String getText() {
+            if (answer != null) {
+                return answer;
+            }
+            synchronized (received) {
+                return received.toString();
+            }
+        }
+
+        /**
+         * 열 마무리 (UI 스레드)
+         * @param response 받은 답변, 실패했으면 null
+         */
+        void complete(String response, String stats) {
+            if (completed || !isActiveRequest(group.requestToken)) {
+                return;
+            }
+            completed = true;
+            if (response != null) {
+                answer = response;
+                stream.finish(-1, new ChatMessage(ChatMessage.Type.ASSISTANT, response, model.getDisplayName()));
+            } else {
+                note = stats;
+                stream.finish(-1);
+            }
+            showStats(stats);
+            group.columnFinished();
+        }
+
+        void showStats(String text) {
+            if (!chatBrowser.isDisposed()) {
+                scriptQueue.enqueue(htmlConverter.getCompareStatsScript(columnId, text));
+            }
+        }
+
+        private String formatStats(String response, long finishedAt) {
+            int tokens = ContextWindowBuilder.estimateTokens(response);
+            long firstDelta = firstDeltaAt != 0 ? firstDeltaAt : finishedAt;
+            StringBuilder stats = new StringBuilder();
+            stats.append("첫 응답 ").append(formatSeconds(firstDelta - startedAt));
+            stats.append(" · 전체 ").append(formatSeconds(finishedAt - startedAt));
+            stats.append(" · 약 ").append(tokens).append(" 토큰");
+            long generation = finishedAt - firstDelta;
+            if (generation > 0 && tokens > 0) {
+                stats.append(" (").append(Math.round(tokens * 1e9 / generation)).append(" 토큰/초)");
+            }
+            return stats.toString();
+        }
+    }
+
+    private static String formatSeconds(long nanos) {
+        return String.format("%.1f초", nanos / 1e9);
+    }
+
+    /**
+     * 진행 중인 응답 생성 중지 (대기 중이면 실행 취소, 실행 중이면 연결 중단)
+     */
+    private void stopGenerating() {
+        if (activeRequests.isEmpty()) {
+            return;
+        }
+        
+        for (Future<Void> request : activeRequests) {
+            request.cancel(true);
+        }
+        llmClient.cancelAll();
+        if (activeStream != null) {
+            activeStream.finish(-1);
+        }
+        if (activeCompare != null) {
+            activeCompare.stop();
+        }
+        
+        ChatMessage stopMessage = new ChatMessage(ChatMessage.Type.SYSTEM, "응답 생성이 중지되었습니다.");
+        chatHistory.addMessage(stopMessage);
+        updateChatDisplay();
+        
+        finishRequest();
+        inputText.setFocus();
+    }
+
+    private boolean isActiveRequest(Object requestToken) {
+        return requestToken == activeRequestToken && !chatBrowser.isDisposed();
+    }
+
+    /**
+     * 요청 종료 후 버튼 상태 복원
+     */
+    private void finishRequest() {
+        activeRequests.clear();
+        activeRequestToken = null;
+        activeStream = null;
+        activeCompare = null;
+        sendButton.setEnabled(true);
+        sendButton.setText(SEND_BUTTON_TEXT);
+        stopButton.setEnabled(false);
+        if (statsButton.getSelection()) {
+            statsPanel.refresh();
+        }
+    }
+
+    /**
+     * 스트리밍 응답을 브라우저 메시지에 점진적으로 붙이는 리스너
+     * 작업 스레드에서 받은 조각은 모아 두었다가, UI 스레드가 이전 갱신을 처리한 뒤
+     * 새로 도착한 부분만 한 번의 appendToMessage 호출로 보낸다.
+     */
+    private class StreamingMessage implements ChatStreamListener {
+        private final Display display;
+        private final String streamId;
+        private final StringBuilder pending = new StringBuilder();
+        private final AtomicBoolean updatePending = new AtomicBoolean(false);
+        // 이하 UI 스레드에서만 접근
+        private boolean begun;
+        private boolean finished;
+
+        StreamingMessage(Display display, String streamId) {
+            this(display, streamId, false);
+        }
+
+        /**
+         * @param begun 브라우저에 메시지가 이미 만들어져 있으면 true (비교 모드의 열)
+         */
+        StreamingMessage(Display display, String streamId, boolean begun) {
+            this.display = display;
+            this.streamId = streamId;
+            this.begun = begun;
+        }
+
+        @Override
+        public void onDelta(String delta) {
+            synchronized (pending) {
+                pending.append(delta);
+            }
+            if (!updatePending.compareAndSet(false, true)) {
+                return;
+            }
+            display.asyncExec(new Runnable() {
+                @Override
+                public void run() {
+                    updatePending.set(false);
+                    flush();
                 }
+            });
+        }
+
+        /**
+         * 모인 조각을 브라우저로 전송 (UI 스레드)
+         */
+        private void flush() {
+            if (finished || chatBrowser.isDisposed()) {
+                return;
             }
-        });
-        worker.start();
+            String delta;
+            synchronized (pending) {
+                delta = pending.toString();
+                pending.setLength(0);
+            }
+            if (delta.isEmpty()) {
+                return;
+            }
+            if (!begun) {
+                begun = true;
+                ChatMessage header = new ChatMessage(ChatMessage.Type.ASSISTANT, "");
+                scriptQueue.enqueue(htmlConverter.getBeginMessageScript(streamId, header));
+            }
+            scriptQueue.enqueue(htmlConverter.getAppendToMessageScript(streamId, delta));
+        }
+
+        /**
+         * 남은 조각을 보내고 메시지를 마무리 (UI 스레드)
+         * @param sequence 히스토리에 저장된 일련번호, 저장하지 않는 부분 응답이면 -1
+         * @return 브라우저에 메시지가 그려졌으면 true
+         */
+        boolean finish(long sequence) {
+            return finish(sequence, null);
+        }
+
+        /**
+         * @param message 히스토리에 저장된 최종 답변 (서버 쪽 마크다운 렌더링에 사용)
+         */
+        boolean finish(long sequence, ChatMessage message) {
+            if (finished) {
+                return begun;
+            }
+            flush();
+            finished = true;
+            if (begun && !chatBrowser.isDisposed()) {
+                scriptQueue.enqueue(message != null
+                    ? htmlConverter.getFinishMessageScript(streamId, sequence, message)
+                    : htmlConverter.getFinishMessageScript(streamId, sequence));
+            }
+            return begun;
+        }
     }
 
     private String getSelectedModelKey() {
@@ -268,21 +955,42 @@ public class KIAssistView extends ViewPart {
     private void updateChatDisplay() {
         // 마지막 메시지만 추가
         ChatMessage lastMessage = chatHistory.getLastMessage();
-        System.out.println("lastMessage : "+lastMessage.getContent());
         if (lastMessage != null) {
-            String script = htmlConverter.getAddMessageScript(lastMessage);
-            System.out.println("script : "+script);
-            chatBrowser.execute(script);
+            long sequence = lastMessage.getType() == ChatMessage.Type.TYPING ? -1 : chatHistory.getNextSequence() - 1;
+            scriptQueue.enqueue(htmlConverter.getAddMessageScript(lastMessage, sequence));
         }
     }
 
     private void clearChat() {
         chatHistory.clear();
         // 브라우저 컨테이너만 초기화
-        chatBrowser.execute("document.getElementById('chatContainer').innerHTML = '<div class=\"message message-system\">KI Assist 채팅이 시작되었습니다. 무엇이든 물어보세요!</div>';");
+        scriptQueue.enqueue("clearMessages('<div class=\"message message-system\">KI Assist 채팅이 시작되었습니다. 무엇이든 물어보세요!</div>');");
         inputText.setFocus();
     }
 
+    @Override
+    public void dispose() {
+        // 뷰가 닫히면 진행 중인 요청도 중단
+        if (!activeRequests.isEmpty()) {
+            for (Future<Void> request : activeRequests) {
+                request.cancel(true);
+            }
+            llmClient.cancelAll();
+            activeRequests.clear();
+            activeRequestToken = null;
+        }
+        if (preferenceListener != null && Activator.getDefault() != null) {
+            Activator.getDefault().getPreferenceStore().removePropertyChangeListener(preferenceListener);
+            preferenceListener = null;
+        }
+        if (sessionJournal != null && Activator.getDefault() != null
+                && Activator.getDefault().getSessionStore() != null) {
+            Activator.getDefault().getSessionStore().releaseSession(sessionJournal);
+            sessionJournal = null;
+        }
+        super.dispose();
+    }
+
     @Override
     public void setFocus() {
         inputText.setFocus();
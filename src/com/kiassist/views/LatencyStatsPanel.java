@@ -0,0 +1,163 @@
+package com.kiassist.views;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+
+import com.kiassist.core.CircuitBreaker;
+import com.kiassist.core.LatencyHistogram;
+import com.kiassist.core.LatencyMetrics;
+import com.kiassist.core.ModelConfig;
+import com.kiassist.core.ModelConfigManager;
+import com.kiassist.core.ModelLatencyStats;
+
+/**
+ * 모델별 요청 지연 통계 표 (LatencyMetrics)
+ * 시간은 p50 / p95 (ms), 생성 속도는 p50 토큰/초
+ * 재시도 횟수, 회로가 열려 보내지 않은 요청 수와 현재 회로 상태,
+ * 헤징으로 보조 모델에 보낸 횟수와 그중 보조 쪽이 이긴 횟수도 함께 표시
+ * JDK 7 호환
+ */
+public class LatencyStatsPanel {
+
+    private static final String[] COLUMNS = {
+        "모델", "요청 (실패)", "연결", "첫 바이트", "첫 토큰", "전체", "토큰/초", "송신 / 수신",
+        "재시도 / 차단", "회로", "헤징 (보조 승)", "캐시"
+    };
+
+    private final Composite composite;
+    private final Table table;
+
+    public LatencyStatsPanel(Composite parent) {
+        composite = new Composite(parent, SWT.NONE);
+        GridLayout layout = new GridLayout(1, false);
+        layout.marginWidth = 0;
+        layout.marginHeight = 0;
+        composite.setLayout(layout);
+
+        table = new Table(composite, SWT.BORDER | SWT.FULL_SELECTION | SWT.SINGLE);
+        table.setHeaderVisible(true);
+        table.setLinesVisible(true);
+        GridData tableData = new GridData(SWT.FILL, SWT.FILL, true, false);
+        tableData.heightHint = table.getItemHeight() * 4 + table.getHeaderHeight();
+        table.setLayoutData(tableData);
+        for (String name : COLUMNS) {
+            TableColumn column = new TableColumn(table, SWT.LEFT);
+            column.setText(name);
+        }
+
+        Button resetButton = new Button(composite, SWT.PUSH);
+        resetButton.setText("통계 초기화");
+        resetButton.setLayoutData(new GridData(SWT.END, SWT.CENTER, false, false));
+        resetButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                LatencyMetrics.getInstance().reset();
+                refresh();
+            }
+        });
+    }
+
+    public Composite getControl() {
+        return composite;
+    }
+
+    /**
+     * 최신 통계로 표 다시 채움 (UI 스레드)
+     */
+    public void refresh() {
+        if (table.isDisposed()) {
+            return;
+        }
+        List<ModelLatencyStats> all = LatencyMetrics.getInstance().getAllStats();
+        Collections.sort(all, new Comparator<ModelLatencyStats>() {
+            @Override
+            public int compare(ModelLatencyStats a, ModelLatencyStats b) {
+                return a.getModelId().compareTo(b.getModelId());
+            }
+        });
+
+        table.setRedraw(false);
+        try {
+            table.removeAll();
+            for (ModelLatencyStats stats : all) {
+                TableItem item = new TableItem(table, SWT.NONE);
+                item.setText(new String[] {
+                    displayName(stats.getModelId()),
+                    stats.getRequests() + " (" + stats.getFailures() + ")",
+                    stats.getConnect().getCount() == 0 ? "-" : formatMillis(stats.getConnect().getPercentile(50)),
+                    formatPercentiles(stats.getFirstByte()),
+                    formatPercentiles(stats.getFirstToken()),
+                    formatPercentiles(stats.getTotal()),
+                    stats.getTokensPerSecond().getCount() == 0
+                        ? "-" : String.valueOf(stats.getTokensPerSecond().getPercentile(50)),
+                    formatBytes(stats.getRequestBytes()) + " / " + formatBytes(stats.getResponseBytes()),
+                    stats.getRetries() + " / " + stats.getRejections(),
+                    formatCircuit(CircuitBreaker.forModel(stats.getModelId()), stats.getCircuitOpens()),
+                    stats.getHedges() + " (" + stats.getHedgeWins() + ")",
+                    String.valueOf(stats.getCacheHits())
+                });
+            }
+            for (TableColumn column : table.getColumns()) {
+                column.pack();
+            }
+        } finally {
+            table.setRedraw(true);
+        }
+    }
+
+    private static String displayName(String modelId) {
+        ModelConfig config = ModelConfigManager.getInstance().getModelById(modelId);
+        return config != null ? config.getDisplayName() : modelId;
+    }
+
+    private static String formatCircuit(CircuitBreaker breaker, long opens) {
+        String state;
+        switch (breaker.getState()) {
+            case OPEN:
+                state = "열림 (" + (breaker.getRemainingOpenMillis() + 999) / 1000 + "초)";
+                break;
+            case HALF_OPEN:
+                state = "시험 중";
+                break;
+            default:
+                state = "닫힘";
+        }
+        return opens == 0 ? state : state + ", " + opens + "회 열림";
+    }
+
+    private static String formatPercentiles(LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return "-";
+        }
+        return formatMillis(histogram.getPercentile(50)) + " / " + formatMillis(histogram.getPercentile(95));
+    }
+
+    private static String formatMillis(long micros) {
+        if (micros < 10000) {
+            return String.format("%.1f ms", micros / 1000.0);
+        }
+        return (micros / 1000) + " ms";
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}